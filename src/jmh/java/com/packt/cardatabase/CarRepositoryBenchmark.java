@@ -0,0 +1,91 @@
+package com.packt.cardatabase;
+
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.CarFilter;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSpecifications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ CarRepository의 검색 메서드들을 embedded H2 DB에서 측정
+ -- carCount: 테이블 크기, cache: 2차 캐시와 쿼리 캐시 사용 여부
+ -- 애플리케이션 전체를 H2로 띄우고 InventoryGenerator로 자동차를 생성 (seed가 고정되어 있어 매번 같은 데이터)
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CarRepositoryBenchmark {
+    @Param({"1000", "10000", "100000"})
+    public int carCount;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private CarRepository repository;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(CardatabaseApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=" + cache,
+                        "cardatabase.generator.cars=" + carCount,
+                        "cardatabase.generator.seed=42")
+                .run();
+        repository = context.getBean(CarRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Car> findByBrand() {
+        return repository.findByBrand("Toyota");
+    }
+
+    @Benchmark
+    public List<Car> findByBrandAndModel() {
+        return repository.findByBrandAndModel("Toyota", "Corolla");
+    }
+
+    @Benchmark
+    public List<Car> findByModelYear() {
+        return repository.findByModelYear(2010);
+    }
+
+    @Benchmark
+    public Window<Car> keysetFirstPage() {
+        return repository.findAllBy(ScrollPosition.keyset(), Sort.by("price", "id"), Limit.of(50));
+    }
+
+    @Benchmark
+    public long filterSpecification() {
+        return repository.count(CarSpecifications.matching(
+                new CarFilter("Ford", null, "Red", 2010, 2020, null, 60000)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.packt.cardatabase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.Owner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+// Car의 JSON 변환 비용: 소유자 포함/미포함 (ObjectMapper 설정은 JacksonConfig와 동일)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CarSerializationBenchmark {
+    private ObjectMapper objectMapper;
+    private Car withOwner;
+    private Car withoutOwner;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder().addModule(new JacksonConfig().hibernate6Module()).build();
+        Owner owner = new Owner("John", "Johnson");
+        withOwner = new Car("Ford", "Mustang", "Red", "ADF-1121", 2023, 59000, owner);
+        withoutOwner = new Car("Ford", "Mustang", "Red", "ADF-1121", 2023, 59000, null);
+    }
+
+    @Benchmark
+    public byte[] carWithOwner() throws Exception {
+        return objectMapper.writeValueAsBytes(withOwner);
+    }
+
+    @Benchmark
+    public byte[] carWithoutOwner() throws Exception {
+        return objectMapper.writeValueAsBytes(withoutOwner);
+    }
+}
@@ -0,0 +1,47 @@
+package com.packt.cardatabase;
+
+import com.packt.cardatabase.service.JwtKeys;
+import com.packt.cardatabase.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+// JwtService: 토큰 서명(getToken)과 검증(getAuthUser)
+// verifiedCacheSize=0 이면 매번 서명 검증, 10000 이면 같은 토큰은 캐시에서 처리
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+    @Param({"0", "10000"})
+    public long verifiedCacheSize;
+
+    private JwtService jwtService;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new SimpleMeterRegistry(), JwtKeys.generated(), verifiedCacheSize);
+        request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtService.getToken("user"));
+    }
+
+    @Benchmark
+    public String getToken() {
+        return jwtService.getToken("user");
+    }
+
+    @Benchmark
+    public String getAuthUser() {
+        return jwtService.getAuthUser(request);
+    }
+}
@@ -0,0 +1,51 @@
+package com.packt.cardatabase;
+
+import com.packt.cardatabase.domain.AppUser;
+import com.packt.cardatabase.domain.AppUserRepository;
+import com.packt.cardatabase.service.UserDetailsServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// UserDetailsServiceImpl.loadUserByUsername: 사용자 캐시 없음(0s) / 있음(30s)
+// repository는 DB 대신 메모리의 AppUser를 반환 ==> UserDetails 생성과 캐시 비용만 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserDetailsServiceBenchmark {
+    @Param({"0s", "30s"})
+    public String userCacheTtl;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Setup
+    public void setUp() {
+        AppUser admin = new AppUser("admin",
+                "$2a$10$8cjz47bjbR4Mn8GMg9IZx.vyjhLXR/SKKMSZ9.mP9vpMu0ssKi8GW", "ADMIN");
+        AppUserRepository repository = (AppUserRepository) Proxy.newProxyInstance(
+                AppUserRepository.class.getClassLoader(), new Class<?>[]{AppUserRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findByUsername")) {
+                        return Optional.of(admin).filter(user -> user.getUsername().equals(args[0]));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        userDetailsService = new UserDetailsServiceImpl(repository, Duration.parse("PT" + userCacheTtl.toUpperCase()));
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername() {
+        return userDetailsService.loadUserByUsername("admin");
+    }
+}
@@ -0,0 +1,82 @@
+package com.packt.cardatabase;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.Owner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/* 응답 형식별 비용: 자동차 목록(carCount대)의 변환 시간과 전송 크기
+ -- encode: 변환 시간 (JSON, CBOR, Smile)
+ -- encodeGzip: 변환 + gzip (server.compression과 같은 조건)
+ -- 전송 크기는 setUp에서 한번 계산해서 출력 (형식, 자동차 수마다 고정된 값)
+*/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"100", "1000"})
+    public int carCount;
+
+    private ObjectMapper mapper;
+    private List<Car> cars;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        mapper = JsonMapper.builder().addModule(new JacksonConfig().hibernate6Module()).build().copyWith(factory);
+
+        String[] brands = {"Ford", "Nissan", "Toyota", "Kia", "Hyundai"};
+        String[] colors = {"Red", "White", "Silver", "Black"};
+        Random random = new Random(42);
+        Owner owner = new Owner("John", "Johnson");
+        cars = new ArrayList<>(carCount);
+        for (int i = 0; i < carCount; i++) {
+            cars.add(new Car(brands[random.nextInt(brands.length)], "Model" + random.nextInt(20),
+                    colors[random.nextInt(colors.length)], "REG-" + i, 2000 + random.nextInt(25),
+                    10000 + random.nextInt(90000), owner));
+        }
+        System.out.printf("%n[wire] format=%s cars=%d bytes=%d gzip=%d%n",
+                format, carCount, encode().length, encodeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public byte[] encodeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            mapper.writeValue(gzip, cars);
+        }
+        return out.toByteArray();
+    }
+}
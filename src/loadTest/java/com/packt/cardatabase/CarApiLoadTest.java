@@ -0,0 +1,197 @@
+package com.packt.cardatabase;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 부하 테스트: ./gradlew loadTest
+ -- 애플리케이션을 임의의 port로 띄우고(H2) InventoryGenerator로 자동차 N대를 생성한 뒤, 여러 client thread가 실제 JWT로 요청
+ -- endpoint별 latency를 HDR histogram으로 기록하고 p50/p99/p99.9와 처리량(req/s)을 출력
+ -- 설정값(System property, -Ploadtest.xxx로 전달)
+    loadtest.cars(2000), loadtest.clients(16), loadtest.duration-seconds(20), loadtest.warmup-seconds(5)
+    loadtest.min-throughput(50 req/s), loadtest.max-p99-ms(500), loadtest.max-p999-ms(1500)
+    loadtest.enforce-budgets(true): false이면 예산 검사 없이 측정만 (thread 모드 비교용)
+    loadtest.report: 결과 요약(JSON)을 저장할 파일
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        // 측정 대상과 같은 조건: 응답에 debug 헤더를 붙이지 않음 (prod profile과 같음)
+        "cardatabase.sql.debug-header=false",
+        // 시작할 때 InventoryGenerator가 loadtest.cars대를 생성 (seed 고정 ==> 실행마다 같은 데이터)
+        "cardatabase.generator.cars=${loadtest.cars:2000}",
+        "cardatabase.generator.seed=42"
+})
+class CarApiLoadTest {
+    static final String LOGIN_BODY = "{\"username\":\"user\",\"password\":\"user\"}";
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void carApiStaysWithinBudget() throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 16);
+        long durationSeconds = Long.getLong("loadtest.duration-seconds", 20);
+        long warmupSeconds = Long.getLong("loadtest.warmup-seconds", 5);
+        double minThroughput = Double.parseDouble(System.getProperty("loadtest.min-throughput", "50"));
+        double maxP99Millis = Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "500"));
+        double maxP999Millis = Double.parseDouble(System.getProperty("loadtest.max-p999-ms", "1500"));
+
+        String token = login();
+
+        // 요청 비율: 목록 조회가 대부분, 로그인(bcrypt)은 가끔
+        Map<String, HttpRequest> scenarios = new LinkedHashMap<>();
+        scenarios.put("GET /cars", get("/cars?owner=false", token));
+        scenarios.put("GET /api/cars", get("/api/cars", token));
+        scenarios.put("GET /api/cars/search/findByBrand", get("/api/cars/search/findByBrand?brand=Ford", token));
+        scenarios.put("GET /api/cars/search/filter", get("/api/cars/search/filter?brand=Toyota&maxPrice=60000", token));
+        scenarios.put("GET /api/cars?sort=price", get("/api/cars?sort=price&size=50", token));
+        scenarios.put("POST /login", HttpRequest.newBuilder(uri("/login"))
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY)).build());
+        List<String> names = new ArrayList<>(scenarios.keySet());
+        int[] weights = {3, 3, 3, 3, 3, 1};
+
+        // warm-up: JIT, connection, 캐시 ==> 측정하지 않음
+        run(clients, warmupSeconds, scenarios, names, weights, null, new AtomicLong());
+
+        Map<String, Histogram> histograms = new LinkedHashMap<>();
+        names.forEach(name -> histograms.put(name, new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3)));
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        run(clients, durationSeconds, scenarios, names, weights, histograms, errors);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram total = new Histogram(TimeUnit.SECONDS.toNanos(60), 3);
+        histograms.values().forEach(total::add);
+        double throughput = total.getTotalCount() / elapsedSeconds;
+
+        System.out.printf("%n%-36s %10s %10s %10s %10s%n", "endpoint", "count", "p50 ms", "p99 ms", "p99.9 ms");
+        histograms.forEach((name, histogram) -> print(name, histogram));
+        print("TOTAL", total);
+        System.out.printf("throughput: %.1f req/s, errors: %d%n%n", throughput, errors.get());
+
+        String report = System.getProperty("loadtest.report");
+        if (report != null) {
+            Path path = Path.of(report);
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, String.format(java.util.Locale.ROOT,
+                    "{\"virtualThreads\":%s,\"clients\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                            + "\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f}",
+                    System.getProperty("spring.threads.virtual.enabled", "false"), clients, total.getTotalCount(),
+                    errors.get(), throughput, millis(total.getValueAtPercentile(50)),
+                    millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9))));
+        }
+        if (!Boolean.parseBoolean(System.getProperty("loadtest.enforce-budgets", "true"))) {
+            return;
+        }
+
+        assertThat(errors.get()).as("failed requests").isZero();
+        assertThat(throughput).as("throughput req/s").isGreaterThanOrEqualTo(minThroughput);
+        assertThat(millis(total.getValueAtPercentile(99))).as("p99 ms").isLessThanOrEqualTo(maxP99Millis);
+        assertThat(millis(total.getValueAtPercentile(99.9))).as("p99.9 ms").isLessThanOrEqualTo(maxP999Millis);
+    }
+
+    // clients개의 thread가 durationSeconds 동안 가중치에 따라 시나리오를 반복 실행
+    private void run(int clients, long durationSeconds, Map<String, HttpRequest> scenarios, List<String> names,
+                     int[] weights, Map<String, Histogram> histograms, AtomicLong errors) throws Exception {
+        int[] schedule = schedule(weights);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; System.nanoTime() < deadline; i++) {
+                        String name = names.get(schedule[i % schedule.length]);
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(scenarios.get(name),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (histograms != null) {
+                            histograms.get(name).recordValue(System.nanoTime() - begin);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String login() throws Exception {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri("/login"))
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY)).build(), HttpResponse.BodyHandlers.discarding());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.headers().firstValue(HttpHeaders.AUTHORIZATION).orElseThrow();
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path)).header(HttpHeaders.AUTHORIZATION, token).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int[] schedule(int[] weights) {
+        List<Integer> slots = new ArrayList<>();
+        for (int i = 0; i < weights.length; i++) {
+            for (int w = 0; w < weights[i]; w++) {
+                slots.add(i);
+            }
+        }
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void print(String name, Histogram histogram) {
+        System.out.printf("%-36s %10d %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
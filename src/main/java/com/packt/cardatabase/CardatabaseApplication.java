@@ -3,14 +3,17 @@ package com.packt.cardatabase;
 // 스프링부트 스타타 패키지 built-in 로깅: Logback (spring-boot-starter => spring-boot-starter-logging > Logback)
 // Logback uses SLF4J as a basic interface
 import com.packt.cardatabase.domain.*;
+import com.packt.cardatabase.service.InventoryGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 //CommandLineRunner는
 import org.springframework.boot.CommandLineRunner;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 
 import java.util.Arrays;
@@ -26,17 +29,37 @@ public class CardatabaseApplication implements CommandLineRunner {
     private final CarRepository repository;
     private final OwnerRepository orepository;
     private final AppUserRepository urepository;
+    private final InventoryGenerator generator;
+    // 예제 데이터 입력 여부: prod profile에서는 false (application-prod.properties)
+    private final boolean seed;
+    // generate profile: 예제 자동차 3대 대신 대량의 데이터를 생성 (application-generate.properties)
+    private final int generatedCars;
+    private final long generatorSeed;
 
     // 생성자를 이용해서 리포지터리 객체 주입
     public CardatabaseApplication(CarRepository repository,
-                                  OwnerRepository orepository, AppUserRepository urepository) {
+                                  OwnerRepository orepository, AppUserRepository urepository,
+                                  InventoryGenerator generator,
+                                  @Value("${cardatabase.seed.enabled:true}") boolean seed,
+                                  @Value("${cardatabase.generator.cars:0}") int generatedCars,
+                                  @Value("${cardatabase.generator.seed:42}") long generatorSeed) {
         this.repository = repository;
         this.orepository = orepository;
         this.urepository = urepository;
+        this.generator = generator;
+        this.seed = seed;
+        this.generatedCars = generatedCars;
+        this.generatorSeed = generatorSeed;
     }
 
     public static void main(String[] args) {
-        SpringApplication.run(CardatabaseApplication.class, args);
+        SpringApplication application = new SpringApplication(CardatabaseApplication.class);
+        /* 시작 단계별 소요 시간 기록 (bean 생성, context refresh 등)
+         -- /actuator/startup 으로 조회 ==> release마다 비교해서 시작 시간이 늘어난 단계를 찾음
+         -- 2048: 보관할 최대 단계 수 (넘으면 이후 단계는 기록하지 않음)
+        */
+        application.setApplicationStartup(new BufferingApplicationStartup(2048));
+        application.run(args);
         // logger.info("message-to-be-printed-on-console");
         logger.info("Application started");
     }
@@ -45,6 +68,25 @@ public class CardatabaseApplication implements CommandLineRunner {
     // SpringApplication.run을 override
     @Override
     public void run(String... args) throws Exception {
+        if (!seed) {
+            return;
+        }
+        if (generatedCars > 0) {
+            generator.generate(generatedCars, generatorSeed);
+        } else {
+            sampleCars();
+        }
+
+        urepository.saveAll(Arrays.asList(
+                // 사용자명: user, 비밀번호: user
+                new AppUser("user",
+                        "$2a$10$NVM0n8ElaRgg7zWO1CxUdei7vWoPg91Lz2aYavh9.f9q0e4bRadue","USER"),
+                // 사용자명: admin, 비밀번호: admin
+                new AppUser("admin",
+                        "$2a$10$8cjz47bjbR4Mn8GMg9IZx.vyjhLXR/SKKMSZ9.mP9vpMu0ssKi8GW", "ADMIN")));
+    }
+
+    private void sampleCars() {
         // 소유자 객체 추가하고 DB에 저장
         Owner owner1 =  new Owner("John", "Johnson");
         Owner owner2 =  new Owner("Mary", "Robinson");
@@ -53,23 +95,14 @@ public class CardatabaseApplication implements CommandLineRunner {
 
         // 자동차 객체를 추가하고 DB에 저장
         // 소유자를 자동차 객체에 포함해서 두 entity 연결
-        repository.save(new Car("Ford", "Mustang", "Red", "ADF-1121", 2023, 59000, owner1));
-        repository.save(new Car("Nissan", "Leaf", "White", "SSJ-3002", 2020, 29000, owner2));
-        repository.save(new Car("Toyota", "Prius", "Silver", "KKO-0212", 2022, 39000, owner2));
-
-        // 모든 자동차를 검색하고 Console에 출력
-        for(Car car: repository.findAll())
-        {
-            logger.info("brand: {}, model: {}", car.getBrand(), car.getModel());
-        }
-
-        // 사용자명: user, 비밀번호: user
-        urepository.save(new AppUser("user",
-                "$2a$10$NVM0n8ElaRgg7zWO1CxUdei7vWoPg91Lz2aYavh9.f9q0e4bRadue","USER"));
+        // saveAll: 한 transaction에서 저장 ==> JDBC batch insert (save()마다 transaction을 만들지 않음)
+        repository.saveAll(Arrays.asList(
+                new Car("Ford", "Mustang", "Red", "ADF-1121", 2023, 59000, owner1),
+                new Car("Nissan", "Leaf", "White", "SSJ-3002", 2020, 29000, owner2),
+                new Car("Toyota", "Prius", "Silver", "KKO-0212", 2022, 39000, owner2)));
 
-        // 사용자명: admin, 비밀번호: admin
-        urepository.save(new AppUser("admin",
-                "$2a$10$8cjz47bjbR4Mn8GMg9IZx.vyjhLXR/SKKMSZ9.mP9vpMu0ssKi8GW", "ADMIN"));
+        // 자동차를 하나씩 출력하지 않고 개수만 출력 (전체 SELECT 없이 count 쿼리 1번)
+        logger.info("Sample cars: {}", repository.count());
     }
 
 }
@@ -0,0 +1,175 @@
+package com.packt.cardatabase;
+
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.OwnerRepository;
+import com.packt.cardatabase.service.CarRepresentationCache.Format;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 조건부 GET (If-None-Match ==> 304 Not Modified)
+ -- 클라이언트가 이전 응답의 ETag를 If-None-Match로 보내면, 버전 정보만 조회해서 바뀌지 않았으면 304로 바로 응답
+    ==> entity 로딩, JSON 변환, 응답 body 전송을 모두 생략
+ -- 단일 리소스 (/api/cars/{id}, /api/owners/{id}, /cars/{id}): strong ETag "버전" (+ 형식, Format.etag)
+    JSON, CBOR, Smile은 서로 다른 representation이므로 ETag도 달라야 함 ==> Accept 헤더로 형식을 정해서 비교
+    Spring Data REST는 형식과 관계없이 "버전"을 붙이므로 응답의 ETag에 형식을 추가 (FormatETagResponse)
+ -- 모든 응답에 Vary: Accept ==> 공유 캐시(proxy, CDN)가 JSON 클라이언트에게 CBOR 응답을 주지 않음
+ -- 컬렉션 (/api/cars, /api/owners, /cars): weak ETag W/"count-maxId-versionSum" (TableVersion) + 형식 (Format.weakEtag)
+    /cars?owner=true 는 소유자 정보도 포함하므로 owner 테이블의 버전도 함께 사용
+ -- @Component filter는 Spring Security filter 다음에 실행 ==> 인증되지 않은 요청에는 304를 주지 않음
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Component
+public class ConditionalGetFilter extends OncePerRequestFilter {
+    private static final Pattern ITEM = Pattern.compile("/(cars|owners)/(\\d+)");
+    private static final Pattern COLLECTION = Pattern.compile("/(cars|owners)/?");
+
+    private final CarRepository carRepository;
+    private final OwnerRepository ownerRepository;
+    private final String basePath;
+
+    public ConditionalGetFilter(CarRepository carRepository, OwnerRepository ownerRepository,
+                                @Value("${spring.data.rest.base-path:}") String basePath) {
+        this.carRepository = carRepository;
+        this.ownerRepository = ownerRepository;
+        this.basePath = basePath;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+
+        Format format = Format.fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+
+        if (path.startsWith(basePath + "/")) {
+            String resourcePath = path.substring(basePath.length());
+            Matcher item = ITEM.matcher(resourcePath);
+            if (item.matches()) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                // 조건부 요청일 때만 버전을 조회 (일반 GET은 Spring Data REST가 그대로 처리)
+                if (ifNoneMatch != null) {
+                    Optional<Long> version = versionOf(item.group(1), Long.valueOf(item.group(2)));
+                    if (version.isPresent() && notModified(request, response, format.etag(version.get()))) {
+                        return;
+                    }
+                }
+                filterChain.doFilter(request, format == Format.JSON ? response : new FormatETagResponse(response, format));
+                return;
+            }
+            Matcher collection = COLLECTION.matcher(resourcePath);
+            if (collection.matches()) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                String tableTag = "cars".equals(collection.group(1))
+                        ? carRepository.tableVersion().tag()
+                        : ownerRepository.tableVersion().tag();
+                if (notModified(request, response, format.weakEtag(tableTag))) {
+                    return;
+                }
+            }
+        } else if (path.startsWith("/cars/") && ITEM.matcher(path).matches()) {
+            // CarController.getCar*: ETag는 controller가 설정
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            if (ifNoneMatch != null) {
+                Optional<Long> version = carRepository.findVersionById(Long.valueOf(path.substring("/cars/".length())));
+                if (version.isPresent() && notModified(request, response, format.etag(version.get()))) {
+                    return;
+                }
+            }
+        } else if (COLLECTION.matcher(path).matches() && path.startsWith("/cars")) {
+            // CarController.getCars
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            String tag = carRepository.tableVersion().tag();
+            // owner 매개변수의 기본값은 true (CarController.getCars)
+            if (!"false".equalsIgnoreCase(request.getParameter("owner"))) {
+                tag += "." + ownerRepository.tableVersion().tag();
+            }
+            if (notModified(request, response, format.weakEtag(tag))) {
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Optional<Long> versionOf(String resource, Long id) {
+        return "cars".equals(resource) ? carRepository.findVersionById(id) : ownerRepository.findVersionById(id);
+    }
+
+    /* If-None-Match 비교: GET에서는 weak comparison (W/ 접두어를 무시하고 값만 비교)
+     -- 같으면 304 + ETag 응답, 다르면 ETag 헤더만 설정하고 요청을 계속 처리 (컬렉션)
+     -- 단일 리소스는 다를 때 헤더를 설정하지 않음: Spring Data REST, CarController가 ETag를 직접 붙임
+    */
+    private static boolean notModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        boolean weak = etag.startsWith("W/");
+        String opaque = weak ? etag.substring(2) : etag;
+        for (String candidate : Collections.list(request.getHeaders(HttpHeaders.IF_NONE_MATCH))) {
+            for (String token : candidate.split(",")) {
+                String value = token.trim();
+                if (value.startsWith("W/")) {
+                    value = value.substring(2);
+                }
+                if (value.equals("*") || value.equals(opaque)) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    response.setHeader(HttpHeaders.ETAG, etag);
+                    return true;
+                }
+            }
+        }
+        if (weak) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+        return false;
+    }
+
+    // Spring Data REST가 붙인 ETag "버전"에 형식을 추가: "버전-cbor" (Format.etag와 같은 값)
+    private static final class FormatETagResponse extends HttpServletResponseWrapper {
+        private final Format format;
+
+        private FormatETagResponse(HttpServletResponse response, Format format) {
+            super(response);
+            this.format = format;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            super.setHeader(name, withFormat(name, value));
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            super.addHeader(name, withFormat(name, value));
+        }
+
+        private String withFormat(String name, String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name) || value == null) {
+                return value;
+            }
+            String version = value.replace("W/", "").replace("\"", "");
+            try {
+                return format.etag(Long.parseLong(version));
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+    }
+}
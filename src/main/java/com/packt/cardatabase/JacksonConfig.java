@@ -0,0 +1,72 @@
+package com.packt.cardatabase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.rest.webmvc.config.RepositoryRestConfigurer;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+
+@Configuration
+public class JacksonConfig {
+
+    /* Hibernate6Module
+     -- 스프링 부트는 Module 타입의 bean을 자동으로 ObjectMapper에 등록
+     -- 아직 로딩되지 않은 LAZY 연관관계(Car.owner proxy)를 JSON으로 변환할때 SELECT를 실행하지 않음
+     -- SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS: 로딩되지 않은 owner는 {"id": 1} 형태로 id만 출력
+    */
+    @Bean
+    public Hibernate6Module hibernate6Module() {
+        Hibernate6Module module = new Hibernate6Module();
+        module.enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+        return module;
+    }
+
+    /* 바이너리 형식: CBOR(application/cbor), Smile(application/x-jackson-smile)
+     -- 같은 데이터를 JSON보다 작게, 더 빠르게 변환 (문자열 escape, 숫자의 텍스트 변환이 없음)
+     -- client가 Accept 헤더로 선택 (content negotiation), 기본값은 그대로 JSON
+     -- copyWith(): 스프링 부트가 설정한 ObjectMapper(Hibernate6Module 등)를 복사해서 출력 형식만 바꿈
+        ==> JSON과 같은 구조의 응답
+    */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+
+    /* Spring Data REST(/api/**)는 별도의 converter 목록을 사용
+     -- HAL converter의 ObjectMapper(_links, entity 직렬화 설정 포함)를 복사해서 CBOR/Smile converter를 추가
+    */
+    @Bean
+    public RepositoryRestConfigurer binaryFormatsRestConfigurer() {
+        return new RepositoryRestConfigurer() {
+            @Override
+            public void configureHttpMessageConverters(List<HttpMessageConverter<?>> messageConverters) {
+                messageConverters.stream()
+                        .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                        .map(AbstractJackson2HttpMessageConverter.class::cast)
+                        .filter(converter -> converter.getSupportedMediaTypes().contains(MediaTypes.HAL_JSON))
+                        .findFirst()
+                        .map(AbstractJackson2HttpMessageConverter::getObjectMapper)
+                        .ifPresent(hal -> {
+                            messageConverters.add(new MappingJackson2CborHttpMessageConverter(
+                                    hal.copyWith(new CBORFactory())));
+                            messageConverters.add(new MappingJackson2SmileHttpMessageConverter(
+                                    hal.copyWith(new SmileFactory())));
+                        });
+            }
+        };
+    }
+}
@@ -4,8 +4,11 @@ import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.OpenAPI;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+// @Lazy: API 문서는 시작에 필요 없음 ==> 처음 사용할 때(/api-docs 요청) 생성해서 시작 시간을 줄임
 @Configuration
+@Lazy
 public class OpenApiConfig {
 
     @Bean
@@ -0,0 +1,109 @@
+package com.packt.cardatabase;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ JDBC 실행 기록 (datasource-proxy listener, ReadWriteDataSourceConfig가 DataSource에 연결)
+ -- 현재 thread에서 실행된 SQL 수와 실행 시간을 누적 ==> RequestMetricsFilter가 요청마다 읽고 초기화
+ -- cardatabase.sql.slow-query-threshold보다 오래 걸린 SQL만 WARN으로 출력
+    (바인딩된 매개변수와 SQL을 호출한 repository 메서드 포함, RepositoryMethodTracker 참고)
+ -- show-sql/TRACE 로그처럼 모든 SQL을 formatting 하지 않으므로 부하가 걸려도 비용이 거의 없음
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Component
+public class QueryAccounting implements QueryExecutionListener {
+    private static final Logger logger = LoggerFactory.getLogger(QueryAccounting.class);
+    // batch는 앞의 몇개만 출력
+    private static final int MAX_LOGGED_BATCHES = 10;
+    private static final ThreadLocal<Stats> STATS = ThreadLocal.withInitial(Stats::new);
+
+    private final long slowQueryMillis;
+
+    public QueryAccounting(@Value("${cardatabase.sql.slow-query-threshold:500ms}") Duration slowQueryThreshold) {
+        this.slowQueryMillis = slowQueryThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Stats stats = STATS.get();
+        stats.count++;
+        stats.millis += execInfo.getElapsedTime();
+        if (execInfo.getElapsedTime() >= slowQueryMillis && logger.isWarnEnabled()) {
+            logger.warn("Slow query ({} ms) from {}: {} {}", execInfo.getElapsedTime(),
+                    stats.repositoryMethod != null ? stats.repositoryMethod : "-",
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")),
+                    queryInfoList.stream().map(QueryAccounting::parameters).collect(Collectors.joining("; ")));
+        }
+    }
+
+    // [1, 'Ford'], [2, 'Audi'] ... (batch 실행이면 batch마다 하나씩)
+    private static String parameters(QueryInfo queryInfo) {
+        List<List<ParameterSetOperation>> batches = queryInfo.getParametersList();
+        String logged = batches.stream()
+                .limit(MAX_LOGGED_BATCHES)
+                .map(operations -> operations.stream()
+                        .sorted(Comparator.comparingInt(operation ->
+                                operation.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE))
+                        .map(QueryAccounting::value)
+                        .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(", "));
+        return batches.size() > MAX_LOGGED_BATCHES ? logged + " ... (" + batches.size() + " batches)" : logged;
+    }
+
+    private static String value(ParameterSetOperation operation) {
+        if ("setNull".equals(operation.getMethod().getName())) {
+            return "null";
+        }
+        Object value = operation.getArgs()[1];
+        return value instanceof CharSequence ? "'" + value + "'" : String.valueOf(value);
+    }
+
+    static void reset() {
+        Stats stats = STATS.get();
+        stats.count = 0;
+        stats.millis = 0;
+    }
+
+    static int count() {
+        return STATS.get().count;
+    }
+
+    static long millis() {
+        return STATS.get().millis;
+    }
+
+    // repository 메서드가 시작될 때 이름을 기록하고 이전 값을 반환, 끝나면 이전 값으로 되돌림 (중첩 호출)
+    static String enterRepositoryMethod(String method) {
+        Stats stats = STATS.get();
+        String previous = stats.repositoryMethod;
+        stats.repositoryMethod = method;
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        STATS.get().repositoryMethod = previous;
+    }
+
+    private static final class Stats {
+        private int count;
+        private long millis;
+        private String repositoryMethod;
+    }
+}
@@ -0,0 +1,26 @@
+package com.packt.cardatabase;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ JPA(blocking)와 R2DBC(reactive)를 함께 사용하기 위한 설정
+ -- R2DBC starter는 ReactiveTransactionManager를 만드는데, 스프링 부트의 JPA transaction manager는
+    다른 TransactionManager가 있으면 생성되지 않음 ==> JPA transaction manager를 직접 등록
+ -- @Primary: @Transactional, TransactionTemplate 등은 기존처럼 JPA transaction을 사용
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Configuration
+public class ReactiveConfig {
+
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
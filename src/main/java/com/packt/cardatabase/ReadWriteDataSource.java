@@ -0,0 +1,163 @@
+package com.packt.cardatabase;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 읽기/쓰기 분리 DataSource
+ -- LazyConnectionDataSourceProxy: 실제 connection은 첫 SQL을 실행할 때 가져옴
+    (Hibernate는 transaction을 시작할 때 connection을 요청하는데, 그 시점에는 readOnly 여부가 아직 등록되지 않음)
+ -- 첫 SQL 시점에 현재 transaction이 @Transactional(readOnly = true)이면 replica, 아니면(쓰기, transaction 밖) primary
+ -- OSIV(open-in-view)에서도 transaction마다 다시 선택하도록 Hibernate가 transaction이 끝나면 connection을 반납해야 함
+    spring.jpa.properties.hibernate.connection.handling_mode=DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION
+ -- replica는 round-robin으로 선택, lag monitor가 지연된(또는 응답하지 않는) replica를 제외
+    사용 가능한 replica가 없으면 primary로 fallback
+ -- decorator: 실제 connection을 감싸는 proxy (SQL 실행 기록, QueryAccounting 참고)
+ -- close(): primary, replica connection pool과 monitor를 정리 (스프링이 bean 종료 시 호출)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public class ReadWriteDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteDataSource.class);
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ScheduledExecutorService monitor;
+
+    public ReadWriteDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                               Duration maxLag, Duration lagCheckInterval, String lagQuery,
+                               MeterRegistry meterRegistry, UnaryOperator<DataSource> decorator) {
+        this.primary = primary;
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        if (replicas.isEmpty()) {
+            setTargetDataSource(decorator.apply(primary));
+            this.monitor = null;
+        } else {
+            Counter fallbacks = Counter.builder("datasource.replica.fallback")
+                    .description("Read-only connections served by the primary because no replica was usable")
+                    .register(meterRegistry);
+            replicas.forEach(replica -> Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("pool", replica.pool.getPoolName())
+                    .register(meterRegistry));
+            setTargetDataSource(decorator.apply(new Router(fallbacks)));
+
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+            threadFactory.setDaemon(true);
+            this.monitor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            long interval = lagCheckInterval.toMillis();
+            monitor.scheduleWithFixedDelay(() -> checkLag(lagQuery, maxLag), interval, interval, TimeUnit.MILLISECONDS);
+        }
+        afterPropertiesSet();
+    }
+
+    private void checkLag(String lagQuery, Duration maxLag) {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                healthy = !StringUtils.hasText(lagQuery) ? connection.isValid(1)
+                        : lagSeconds(connection, lagQuery) <= maxLag.toSeconds();
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Replica {} is now {}", replica.pool.getPoolName(), healthy ? "in use" : "skipped");
+                replica.healthy = healthy;
+            }
+        }
+    }
+
+    // SHOW SLAVE STATUS는 Seconds_Behind_Master 칼럼, 그 외에는 첫번째 칼럼, 복제가 멈췄으면(null, 결과 없음) 무한대
+    private static long lagSeconds(Connection connection, String lagQuery) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(lagQuery)) {
+            if (!result.next()) {
+                return Long.MAX_VALUE;
+            }
+            int column = 1;
+            for (int i = 1; i <= result.getMetaData().getColumnCount(); i++) {
+                if ("Seconds_Behind_Master".equalsIgnoreCase(result.getMetaData().getColumnLabel(i))) {
+                    column = i;
+                }
+            }
+            long lag = result.getLong(column);
+            return result.wasNull() ? Long.MAX_VALUE : lag;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    // 읽기 전용 transaction이면 사용 가능한 replica를 차례대로 선택, 없으면 primary
+    private final class Router extends AbstractDataSource {
+        private final AtomicInteger next = new AtomicInteger();
+        private final Counter fallbacks;
+
+        private Router(Counter fallbacks) {
+            this.fallbacks = fallbacks;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return primary.getConnection();
+            }
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (replica.healthy) {
+                    try {
+                        return replica.pool.getConnection();
+                    } catch (SQLException e) {
+                        // pool이 connection을 만들 수 없음 ==> 다음 확인까지 제외
+                        replica.healthy = false;
+                        logger.warn("Replica {} is now skipped: {}", replica.pool.getPoolName(), e.getMessage());
+                    }
+                }
+            }
+            fallbacks.increment();
+            return primary.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
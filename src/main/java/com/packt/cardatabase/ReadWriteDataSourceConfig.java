@@ -0,0 +1,76 @@
+package com.packt.cardatabase;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ DataSource 설정: primary(쓰기) + replica(읽기 전용) connection pool, 라우팅은 ReadWriteDataSource 참고
+ -- 이 bean이 있으면 스프링 부트는 DataSource를 따로 만들지 않음
+ -- primary: spring.datasource.*, spring.datasource.hikari.* (기존 설정 그대로)
+ -- replica: cardatabase.datasource.replica-urls (쉼표로 구분), hikari 설정은 primary와 같고 pool은 read-only
+    replica가 없으면 모든 connection이 primary에서 나옴 (기존 동작과 같음)
+ -- cardatabase.datasource.max-lag: 복제 지연이 이 값보다 큰 replica는 사용하지 않음
+    lag-query: 지연(초)을 반환하는 쿼리, 비어 있으면 연결 가능 여부만 확인
+    예) SHOW SLAVE STATUS (Seconds_Behind_Master 칼럼을 사용)
+ -- DataSource bean은 하나만 등록: 테스트(@DataJpaTest)의 embedded DB 교체가 그대로 동작
+    스프링 부트는 감싸진 pool을 찾지 못하므로 hikaricp.* metrics를 직접 등록 (pool tag: primary, replica-N)
+ -- 모든 JDBC 실행은 datasource-proxy를 거쳐 QueryAccounting에 기록됨 (요청별 SQL 수/시간, slow query 로그)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Configuration
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    public ReadWriteDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                          MeterRegistry meterRegistry, QueryAccounting queryAccounting,
+                                          @Value("${cardatabase.datasource.replica-urls:}") List<String> replicaUrls,
+                                          @Value("${cardatabase.datasource.replica-username:${spring.datasource.username:}}") String replicaUsername,
+                                          @Value("${cardatabase.datasource.replica-password:${spring.datasource.password:}}") String replicaPassword,
+                                          @Value("${cardatabase.datasource.max-lag:5s}") Duration maxLag,
+                                          @Value("${cardatabase.datasource.lag-check-interval:5s}") Duration lagCheckInterval,
+                                          @Value("${cardatabase.datasource.lag-query:}") String lagQuery) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("replica-" + replicas.size());
+            pool.setReadOnly(true);
+            replicas.add(pool);
+        }
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        primary.setMetricsTrackerFactory(metrics);
+        replicas.forEach(pool -> pool.setMetricsTrackerFactory(metrics));
+        return new ReadWriteDataSource(primary, replicas, maxLag, lagCheckInterval, lagQuery, meterRegistry,
+                target -> ProxyDataSourceBuilder.create(target).name("cardatabase").listener(queryAccounting).build());
+    }
+}
@@ -0,0 +1,38 @@
+package com.packt.cardatabase;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 모든 Spring Data repository proxy에 interceptor를 추가해서 실행 중인 메서드 이름(예: CarRepository.findByBrand)을 기록
+ -- QueryAccounting이 느린 SQL을 출력할 때 어느 repository 메서드에서 실행됐는지 함께 출력
+ -- Spring Data REST 요청도 repository 메서드를 호출하므로 같이 기록됨
+ -- 스프링 부트의 repository metrics(spring.data.repository.invocations)와 같은 방식 (RepositoryFactoryCustomizer)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Component
+public class RepositoryMethodTracker implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        String repository = repositoryInformation.getRepositoryInterface().getSimpleName();
+                        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                            String previous = QueryAccounting.enterRepositoryMethod(
+                                    repository + "." + invocation.getMethod().getName());
+                            try {
+                                return invocation.proceed();
+                            } finally {
+                                QueryAccounting.exitRepositoryMethod(previous);
+                            }
+                        });
+                    }));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,92 @@
+package com.packt.cardatabase;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/*
+ 요청 하나당 실행된 SQL 수와 SQL 실행 시간 (QueryAccounting이 요청 thread에서 누적)
+ -- /actuator/metrics/jdbc.statements.per.request, /actuator/metrics/jdbc.time.per.request
+ -- cardatabase.sql.debug-header=true (prod profile 제외): 응답에 X-Query-Count, X-Query-Time 헤더 추가
+    body를 쓰기 시작하면 헤더를 더 이상 바꿀 수 없으므로 그 시점까지의 값 (응답이 아직 전송되지 않았으면 마지막 값)
+*/
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    private final DistributionSummary statementsPerRequest;
+    private final Timer timePerRequest;
+    private final boolean debugHeader;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry,
+                                @Value("${cardatabase.sql.debug-header:false}") boolean debugHeader) {
+        this.statementsPerRequest = DistributionSummary.builder("jdbc.statements.per.request")
+                .description("SQL statements executed on the request thread per HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timePerRequest = Timer.builder("jdbc.time.per.request")
+                .description("Time spent executing SQL on the request thread per HTTP request")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.debugHeader = debugHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryAccounting.reset();
+        try {
+            filterChain.doFilter(request, debugHeader ? new QueryHeaderResponse(response) : response);
+        } finally {
+            if (debugHeader && !response.isCommitted()) {
+                setHeaders(response);
+            }
+            statementsPerRequest.record(QueryAccounting.count());
+            timePerRequest.record(QueryAccounting.millis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void setHeaders(HttpServletResponse response) {
+        response.setHeader(QUERY_COUNT_HEADER, String.valueOf(QueryAccounting.count()));
+        response.setHeader(QUERY_TIME_HEADER, QueryAccounting.millis() + "ms");
+    }
+
+    // body를 쓰기 직전에 헤더를 붙임
+    private static final class QueryHeaderResponse extends HttpServletResponseWrapper {
+        private QueryHeaderResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            setHeaders(this);
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            setHeaders(this);
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            setHeaders(this);
+            super.flushBuffer();
+        }
+    }
+}
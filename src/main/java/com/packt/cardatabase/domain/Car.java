@@ -1,17 +1,62 @@
 package com.packt.cardatabase.domain;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.Index;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+/* @Table(indexes=...)
+ -- keyset(seek) pagination용 복합 인덱스: (정렬 칼럼, id) 순서
+ -- "where modelYear > ? or (modelYear = ? and id > ?) order by modelYear, id limit ?" 쿼리가
+    인덱스를 따라 바로 다음 row로 이동하므로 몇번째 페이지든 비용이 같음 (offset 페이징은 앞의 row를 모두 건너뛰어야 함)
+ -- columnList에는 칼럼 이름이 아닌 entity field 이름을 사용 (naming strategy가 model_year로 변환)
+*/
+@Table(indexes = {
+        @Index(name = "idx_car_model_year_id", columnList = "modelYear, id"),
+        @Index(name = "idx_car_price_id", columnList = "price, id"),
+        @Index(name = "idx_car_brand_id", columnList = "brand, id"),
+        @Index(name = "idx_car_color_id", columnList = "color, id"),
+        // 복합 검색(/api/cars/search/filter)용: brand, brand+model, brand+model+연도 범위 조건
+        @Index(name = "idx_car_brand_model_year", columnList = "brand, model, modelYear"),
+        @Index(name = "idx_car_color_year", columnList = "color, modelYear")
+})
+/* @NamedEntityGraph: fetch plan
+ -- owner는 LAZY이기 때문에 Car 목록을 JSON으로 변환하면 자동차마다 owner SELECT가 한번씩 더 실행됨 (N+1 문제)
+ -- "Car.owner" graph를 쓰는 repository 메서드는 join fetch로 Car와 Owner를 한번의 쿼리로 가져옴
+*/
+@NamedEntityGraph(name = "Car.owner", attributeNodes = @NamedAttributeNode("owner"))
+// insert/update/delete를 CarChangedEvent로 알려줌 (메모리 인덱스 등이 구독)
+@EntityListeners(CarEntityListener.class)
+/* 2차 캐시(second-level cache)
+ -- @Cacheable: 이 entity를 2차 캐시에 저장 (application.properties, application.conf 참고)
+ -- READ_WRITE: 변경이 commit될 때 캐시도 함께 갱신 ==> 오래된 값을 읽지 않음
+*/
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Car {
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    /* SEQUENCE + pooled optimizer
+     -- allocationSize=50: sequence를 한번 호출해서 id 50개를 미리 할당 ==> insert마다 sequence를 호출하지 않음
+     -- IDENTITY(auto_increment)는 insert를 실행해야 id를 알 수 있어서 Hibernate가 JDBC batch insert를 할 수 없음
+        ==> SEQUENCE를 명시해서 DB나 dialect가 바뀌어도 batch insert가 가능하도록 함
+    */
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+    @SequenceGenerator(name = "car_seq", sequenceName = "car_seq", allocationSize = 50)
     
     /* Java17 이상
     -- 레코드: 데이터 전달 목적, 객체를 더 빠르고 간편하게 만들기 위한 기능
@@ -32,6 +77,13 @@ public class Car {
 
     private int modelYear, price;
 
+    /* @Version: 낙관적 잠금(optimistic locking) + 변경 감지용 버전 번호
+     -- update마다 Hibernate가 1씩 증가, 다른 트랜잭션이 먼저 수정했으면 OptimisticLockException
+     -- Spring Data REST는 이 값으로 단일 리소스의 ETag("버전")를 만듦 (ConditionalGetFilter 참고)
+    */
+    @Version
+    private Long version;
+
     // 여러차가 한 소유주에게 있을수 있음
     // FetchType: DB에서 data를 검색하는 전략
     // LAZY: 지연검색 (반대: EAGER: 즉시 검색)
@@ -39,6 +91,10 @@ public class Car {
     @JoinColumn(name = "owner")
     private Owner owner;
 
+    // 마지막으로 DB와 동기화된 상태, CarEntityListener가 관리 (@Transient: DB 칼럼 아님)
+    @Transient
+    private CarSnapshot loadedState;
+
     /* 다대다 관계, @ManyToMany
     -- 다대다 관계로 바꾸면 아래와 같음. 여기서는 한 소유자가 자동차 여러대 가능. 한 자동차가 여러 소유자 가능.
     -- 다대다 관계에서는 List대신 Set을 이용하는것이 좋다.
@@ -136,6 +192,14 @@ public class Car {
         this.price = price;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Owner getOwner() {
         return owner;
     }
@@ -143,4 +207,12 @@ public class Car {
     public void setOwner(Owner owner) {
         this.owner = owner;
     }
+
+    CarSnapshot getLoadedState() {
+        return loadedState;
+    }
+
+    void setLoadedState(CarSnapshot loadedState) {
+        this.loadedState = loadedState;
+    }
 }
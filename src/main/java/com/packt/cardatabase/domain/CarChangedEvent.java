@@ -0,0 +1,17 @@
+package com.packt.cardatabase.domain;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ Car가 DB에 insert/update/delete 될 때 CarEntityListener가 발행하는 Spring application event
+ -- before: 변경 전 상태 (CREATED는 null), after: 변경 후 상태 (DELETED는 null)
+ -- 받는 쪽은 @TransactionalEventListener를 이용해서 commit 이후에만 처리 (rollback된 변경은 무시됨)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public record CarChangedEvent(Type type, CarSnapshot before, CarSnapshot after) {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    public Long id() {
+        return after != null ? after.id() : before.id();
+    }
+}
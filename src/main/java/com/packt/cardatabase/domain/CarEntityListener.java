@@ -0,0 +1,56 @@
+package com.packt.cardatabase.domain;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ JPA entity lifecycle listener (Car의 @EntityListeners 참고)
+ -- @PostLoad/@PostPersist/@PostUpdate/@PostRemove: SELECT/INSERT/UPDATE/DELETE 가 실행된 직후에 호출
+ -- 스프링 부트는 Hibernate가 listener를 스프링 bean처럼 생성하도록 설정하므로 생성자 주입이 가능
+ -- CarRepository.save(), Spring Data REST의 POST/PUT/PATCH/DELETE 모두 이 listener를 거침
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public class CarEntityListener {
+    private final ApplicationEventPublisher publisher;
+
+    public CarEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    // update 이벤트에 변경 전 값을 실어 보내기 위해 DB에서 읽어온 상태를 기억
+    @PostLoad
+    void loaded(Car car) {
+        car.setLoadedState(CarSnapshot.of(car));
+    }
+
+    @PostPersist
+    void created(Car car) {
+        CarSnapshot after = CarSnapshot.of(car);
+        car.setLoadedState(after);
+        if (!ChangeEvents.isSuppressed()) {
+            publisher.publishEvent(new CarChangedEvent(CarChangedEvent.Type.CREATED, null, after));
+        }
+    }
+
+    @PostUpdate
+    void updated(Car car) {
+        CarSnapshot after = CarSnapshot.of(car);
+        CarSnapshot before = car.getLoadedState();
+        car.setLoadedState(after);
+        if (!ChangeEvents.isSuppressed()) {
+            publisher.publishEvent(new CarChangedEvent(CarChangedEvent.Type.UPDATED, before, after));
+        }
+    }
+
+    @PostRemove
+    void removed(Car car) {
+        CarSnapshot before = car.getLoadedState() != null ? car.getLoadedState() : CarSnapshot.of(car);
+        if (!ChangeEvents.isSuppressed()) {
+            publisher.publishEvent(new CarChangedEvent(CarChangedEvent.Type.DELETED, before, null));
+        }
+    }
+}
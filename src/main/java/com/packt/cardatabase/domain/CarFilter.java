@@ -0,0 +1,7 @@
+package com.packt.cardatabase.domain;
+
+// 자동차 검색 조건: null인 조건은 무시 (brand만 주면 brand로만, brand와 year 범위를 주면 둘다 만족하는 자동차)
+public record CarFilter(String brand, String model, String color,
+                        Integer minYear, Integer maxYear,
+                        Integer minPrice, Integer maxPrice) {
+}
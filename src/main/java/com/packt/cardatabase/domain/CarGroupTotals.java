@@ -0,0 +1,5 @@
+package com.packt.cardatabase.domain;
+
+// (브랜드, 색상, 연식)별 자동차 수와 가격 합계: CarRepository.groupTotals() 결과 한 줄
+public record CarGroupTotals(String brand, String color, Integer modelYear, Long count, Long priceSum) {
+}
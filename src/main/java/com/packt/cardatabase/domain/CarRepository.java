@@ -1,14 +1,27 @@
 package com.packt.cardatabase.domain;
 
 import java.util.List;
+import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
 
 // 서비스에 리포지터리에 대한 쿼리를 포함하기 위한
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /*
  ---------------------------------------------------------------------------------------------------------------------
@@ -24,7 +37,8 @@ import org.springframework.data.repository.query.Param;
     가능하게 해중 (아래 설명 참고)
  ---------------------------------------------------------------------------------------------------------------------
 */
-@RepositoryRestResource
+// excerptProjection: 컬렉션(/api/cars, 검색 결과)은 CarSummary 필드만 출력
+@RepositoryRestResource(excerptProjection = CarSummary.class)
 
 /* ***CRUD Repository***
  -----------------------------------------------------------------------------------------------------
@@ -49,7 +63,11 @@ import org.springframework.data.repository.query.Param;
                 ** NullPointerException 방지!!!
  -----------------------------------------------------------------------------------------------------
 */
-public interface CarRepository extends CrudRepository<Car,Long> {
+// JpaSpecificationExecutor: 여러 검색 조건을 조합하는 동적 쿼리 (CarSpecifications 참고)
+// 조회 메서드는 읽기 전용 transaction ==> replica로 라우팅 (ReadWriteDataSource), save/delete는 CrudRepository 기본값(쓰기)
+@Transactional(readOnly = true)
+public interface CarRepository extends CrudRepository<Car,Long>, JpaSpecificationExecutor<Car>,
+        CarStreamRepository {
     /* PagingAndSortingRepository
     ---------------------------------------------------------------------------
      public interface CarRepository **extends PagingAndSortingRepository** {
@@ -64,6 +82,14 @@ public interface CarRepository extends CrudRepository<Car,Long> {
     ---------------------------------------------------------------------------
     */
 
+    /* 쿼리 캐시(query cache)
+    ---------------------------------------------------------------------------
+     @QueryHints(HINT_CACHEABLE): 같은 매개변수로 다시 호출하면 DB 대신 캐시된 결과(id 목록)를 사용
+     -- id 목록으로 entity를 찾을때는 Car의 2차 캐시를 이용
+     -- car 테이블이 변경되면 Hibernate가 관련된 캐시된 쿼리 결과를 자동으로 무효화
+    ---------------------------------------------------------------------------
+    */
+
     // CRUD 메서드 general format
     // findBy + @Entity_Class_Field + And/Or/OrderBy/more keywords + @Entity_Class_Field2
 
@@ -75,6 +101,8 @@ public interface CarRepository extends CrudRepository<Car,Long> {
     ---------------------------------------------------------------------------
     */
     // 브랜드로 자동차를 검색
+    // REST 요청(/api/cars/search/findByBrand 등)은 CarSearchController가 keyset pagination으로 처리
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByBrand(@Param("brand") String brand);
     
     /*
@@ -84,22 +112,73 @@ public interface CarRepository extends CrudRepository<Car,Long> {
     ---------------------------------------------------------------------------
     */
     // 색상으로 자동차를 검색
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByColor(@Param("color") String color);
 
     // 연도로 자동차를 검색
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByModelYear(int modelYear);
 
     // By키워드 다음에 And 및 Or 키워드를 붙여 여러 필드를 지정
     // 브랜드와 모델로 자동차를 검색
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByBrandAndModel(String brand, String model);
 
     // 브랜드 또는 색상별로 자동차 검색
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByBrandOrColor(String brand, String color);
 
     // 쿼리를 정렬하려면 퀴리 메서드에서 OrderBy 키워드를 이용
     // z브랜드로 자동차 검색, 그리고 연도로 정렬
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByBrandOrderByModelYearAsc(String brand);
 
+    // 소유자까지 함께 반환하는 목록: Car.owner entity graph ==> car left join owner, 쿼리 1번
+    // Spring Data REST는 owner를 link로 표현하므로 노출하지 않음 (/cars?owner=true 에서 사용)
+    @RestResource(exported = false)
+    @EntityGraph("Car.owner")
+    List<Car> findAllWithOwnerBy();
+
+    // 목록 화면용: brand, model, modelYear, price, id 칼럼만 SELECT (CarSummary 참고), /cars?view=summary
+    @RestResource(exported = false)
+    List<CarSummary> findSummariesBy();
+
+    // 통계 초기값: (brand, color, modelYear)별 count/sum을 쿼리 1번으로 (CarStatistics 참고)
+    @RestResource(exported = false)
+    @Query("select new com.packt.cardatabase.domain.CarGroupTotals(c.brand, c.color, c.modelYear, count(c), sum(c.price))"
+            + " from Car c group by c.brand, c.color, c.modelYear")
+    List<CarGroupTotals> groupTotals();
+
+    /* 조건부 GET(If-None-Match)용 validator 쿼리: entity를 로딩하지 않고 버전 정보만 읽음
+     -- tableVersion(): row 수, 최대 id, 버전 합계 ==> insert/delete/update가 있으면 값이 바뀜 (컬렉션의 weak ETag)
+     -- findVersionById(): 단일 자동차의 @Version 값 (strong ETag)
+     -- 쿼리 캐시 사용: car 테이블이 변경되면 Hibernate가 자동으로 무효화 ==> 폴링이 반복돼도 SQL 실행 없음
+    */
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.packt.cardatabase.domain.TableVersion(count(c), max(c.id), sum(c.version)) from Car c")
+    TableVersion tableVersion();
+
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select c.version from Car c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /* Keyset(seek) pagination: Window<T> + ScrollPosition (Spring Data 3.1 이상)
+    ---------------------------------------------------------------------------
+     -- offset 페이징(Page<T>)은 "limit ? offset ?" 쿼리로 앞의 row를 모두 읽고 버리기 때문에 뒤 페이지일수록 느려짐
+     -- keyset 페이징은 마지막으로 읽은 row의 정렬 key 값(예: modelYear, id)을 기억해서 그 다음부터 검색
+        ==> Car의 (정렬 칼럼, id) 복합 인덱스를 이용하므로 N번째 페이지도 첫 페이지와 비용이 같음
+     -- Sort에 id가 없으면 Spring Data가 자동으로 id를 추가 (정렬 key가 unique해야 함)
+     -- ScrollPosition은 REST 쿼리 매개변수로 바인딩할 수 없기 때문에 exported=false
+        대신 CarSearchController가 /api/cars를 이 메서드로 처리 (같은 경로의 Spring Data REST handler를 대체)
+        조건이 있는 검색(/api/cars/search/findBy*, filter)은 메모리 인덱스 또는 findBy(Specification, ..scroll)
+    ---------------------------------------------------------------------------
+    */
+    @RestResource(exported = false)
+    Window<Car> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+
     /* @Query annotation
     -- @Query annotation을 이용하면 SQL 문으로 직접 쿼리를 만들수 있다.
        --> 단점: 다른 DB로의 migration이 힘들어짐. (특정한 SQL query로 만들어지기 때문)
@@ -114,6 +193,8 @@ public interface CarRepository extends CrudRepository<Car,Long> {
     SQL "like" 쿼리문을 이용해서 브랜드로 자동차 검색
     @Query("select c from Car c where c.brand like %?1")
     List<Car> findByBrandLike(String brand);
+    --> 앞에 %가 있으면 인덱스를 사용할 수 없어서 테이블 전체를 읽음
+        자동완성은 /api/cars/search/suggest (메모리 인덱스, CarSuggestIndex) 를 사용
 
     */
 
@@ -0,0 +1,18 @@
+package com.packt.cardatabase.domain;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ R2DBC(reactive)용 읽기 전용 Car 매핑
+ -- JPA의 Car entity와 같은 car 테이블을 읽음 (스키마는 JPA/Hibernate가 관리)
+ -- R2DBC는 연관관계(@ManyToOne)를 지원하지 않으므로 owner는 FK 값(ownerId)으로만 매핑
+ -- @Table은 jakarta.persistence가 아니라 Spring Data Relational의 annotation
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Table("car")
+public record CarRow(@Id Long id, String brand, String model, String color, String registrationNumber,
+                     int modelYear, int price, @Column("owner") Long ownerId) {
+}
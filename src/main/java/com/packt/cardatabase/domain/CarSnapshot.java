@@ -0,0 +1,13 @@
+package com.packt.cardatabase.domain;
+
+// 특정 시점의 Car 칼럼 값 (변경 이벤트와 메모리 인덱스에서 사용, entity가 아니므로 lazy loading 없음)
+public record CarSnapshot(Long id, String brand, String model, String color, String registrationNumber,
+                          int modelYear, int price, Long ownerId) {
+
+    public static CarSnapshot of(Car car) {
+        // owner가 아직 로딩되지 않은 proxy여도 getId()는 SELECT를 실행하지 않음
+        Long ownerId = car.getOwner() == null ? null : car.getOwner().getId();
+        return new CarSnapshot(car.getId(), car.getBrand(), car.getModel(), car.getColor(),
+                car.getRegistrationNumber(), car.getModelYear(), car.getPrice(), ownerId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.packt.cardatabase.domain;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ JPA Specification (Criteria API)
+ -- findByBrand, findByBrandAndModel ... 처럼 조건 조합마다 메서드를 만들지 않고 실행 시점에 where 절을 조립
+ -- CarRepository가 JpaSpecificationExecutor<Car>를 확장해야 findAll(spec), findBy(spec, ..) 사용 가능
+ -- 모든 조건은 and로 묶여서 하나의 쿼리로 실행됨 (Car의 @Table(indexes=...) 참고)
+ -- 문자열 조건(brand, model, color)은 대소문자 구분 없이 lower(칼럼) = lower(값)
+    메모리 인덱스(CarColumns)와 같은 결과를 주기 위함: MariaDB 기본 collation은 원래 구분하지 않지만 H2(테스트, 벤치마크)는 구분
+    MariaDB에서는 칼럼에 함수를 적용하므로 brand/color 인덱스로 seek하지 못함 ==> 자주 쓰는 검색은 메모리 인덱스를 켜서 처리
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public final class CarSpecifications {
+
+    private CarSpecifications() {
+    }
+
+    public static Specification<Car> matching(CarFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.brand() != null) {
+                predicates.add(equalIgnoringCase(cb, root.get("brand"), filter.brand()));
+            }
+            if (filter.model() != null) {
+                predicates.add(equalIgnoringCase(cb, root.get("model"), filter.model()));
+            }
+            if (filter.color() != null) {
+                predicates.add(equalIgnoringCase(cb, root.get("color"), filter.color()));
+            }
+            if (filter.minYear() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("modelYear"), filter.minYear()));
+            }
+            if (filter.maxYear() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("modelYear"), filter.maxYear()));
+            }
+            if (filter.minPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+            }
+            if (filter.maxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static Predicate equalIgnoringCase(CriteriaBuilder cb, Path<String> path, String value) {
+        return cb.equal(cb.lower(path), value.toLowerCase(Locale.ROOT));
+    }
+}
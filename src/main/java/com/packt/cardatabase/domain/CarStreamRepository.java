@@ -0,0 +1,20 @@
+package com.packt.cardatabase.domain;
+
+import java.util.stream.Stream;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ CarRepository에 붙는 custom fragment
+ -- findAll()은 모든 Car를 한번에 List로 만들어서 반환하기 때문에 대규모 테이블에서는 heap을 많이 사용
+ -- streamAll()은 JDBC fetch size 단위로 DB에서 row를 읽어오면서 Stream<Car>로 하나씩 넘겨줌
+ -- 반환된 Stream은 반드시 transaction 안에서 사용하고, 사용 후 close 해야 함 (try-with-resources)
+ -- Spring Data REST는 fragment 메서드를 /search 엔드포인트로 노출하지 않음
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public interface CarStreamRepository {
+    Stream<Car> streamAll(int fetchSize);
+
+    // entity 대신 칼럼 값만 읽어오는 버전 (persistence context를 거치지 않음, 메모리 인덱스 초기화용)
+    // id 순서 ==> 초기화 도중에 어디까지 읽었는지 마지막 id로 알 수 있음 (CarSuggestIndex 참고)
+    Stream<CarSnapshot> streamSnapshots(int fetchSize);
+}
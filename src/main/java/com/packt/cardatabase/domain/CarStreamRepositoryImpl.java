@@ -0,0 +1,36 @@
+package com.packt.cardatabase.domain;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+// 이름 규칙: fragment interface 이름 + Impl => Spring Data가 자동으로 CarRepository에 연결
+class CarStreamRepositoryImpl implements CarStreamRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Car> streamAll(int fetchSize) {
+        // HINT_FETCH_SIZE: JDBC driver가 한번에 가져오는 row 수 (MariaDB는 fetch size > 0 이면 streaming 모드)
+        // HINT_READ_ONLY: dirty checking을 위한 snapshot을 만들지 않음
+        return entityManager.createQuery("select c from Car c", Car.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public Stream<CarSnapshot> streamSnapshots(int fetchSize) {
+        return entityManager.createQuery("""
+                        select c.id, c.brand, c.model, c.color, c.registrationNumber, c.modelYear, c.price, o.id
+                        from Car c left join c.owner o
+                        order by c.id
+                        """, Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream()
+                .map(row -> new CarSnapshot((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                        (String) row[4], (Integer) row[5], (Integer) row[6], (Long) row[7]));
+    }
+}
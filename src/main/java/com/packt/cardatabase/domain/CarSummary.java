@@ -0,0 +1,25 @@
+package com.packt.cardatabase.domain;
+
+import org.springframework.data.rest.core.config.Projection;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 목록 화면용 projection: 브랜드, 모델, 연도, 가격만
+ -- Spring Data REST excerpt: /api/cars 컬렉션의 기본 표현 (CarRepository의 excerptProjection)
+    단일 리소스(/api/cars/{id})는 전체 표현, ?projection=summary 로 요약 표현 요청 가능
+ -- repository 메서드의 반환 타입으로 쓰면(closed interface projection) Spring Data JPA가
+    이 getter에 해당하는 칼럼만 SELECT ==> entity 생성, persistence context 등록이 없음
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Projection(name = "summary", types = Car.class)
+public interface CarSummary {
+    Long getId();
+
+    String getBrand();
+
+    String getModel();
+
+    int getModelYear();
+
+    int getPrice();
+}
@@ -0,0 +1,32 @@
+package com.packt.cardatabase.domain;
+
+import java.util.function.Supplier;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 현재 thread의 CarChangedEvent/OwnerChangedEvent 발행을 잠시 끔 (CarEntityListener, OwnerEntityListener가 확인)
+ -- 대량 데이터 생성(InventoryGenerator)처럼 row마다 이벤트를 받을 필요가 없는 작업용
+    ==> 통계, 자동완성 인덱스, 변경 feed에 수백만 건의 이벤트가 전달되지 않음
+ -- 끈 쪽이 작업이 끝난 뒤 필요한 갱신을 한번에 알려야 함 (InventoryGenerator.Result 참고)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public final class ChangeEvents {
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private ChangeEvents() {
+    }
+
+    public static <T> T suppressed(Supplier<T> work) {
+        Boolean previous = SUPPRESSED.get();
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            SUPPRESSED.set(previous);
+        }
+    }
+
+    static boolean isSuppressed() {
+        return SUPPRESSED.get() != null;
+    }
+}
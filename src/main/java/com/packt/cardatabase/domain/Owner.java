@@ -3,26 +3,45 @@ package com.packt.cardatabase.domain;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @JsonIgnoreProperties({"hibernateLazyInitializer","handler"})
+// insert/update/delete를 OwnerChangedEvent로 알려줌 (변경 feed가 구독)
+@EntityListeners(OwnerEntityListener.class)
+// 2차 캐시: Car.java 참고
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Owner {
     @Id
-    @GeneratedValue(strategy= GenerationType.AUTO)
+    // SEQUENCE + pooled optimizer: Car.java 참고
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "owner_seq")
+    @SequenceGenerator(name = "owner_seq", sequenceName = "owner_seq", allocationSize = 50)
     private Long id;
 
     private String firstName, lastName;
 
+    // 버전 번호: Car.java 참고
+    @Version
+    private Long version;
+
     @JsonIgnore
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "owner")
+    // collection cache: 소유자의 자동차 id 목록을 캐시 (자동차 자체는 Car의 캐시에서)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Car> cars;
 
     /* 다대다 관계로 변환할 경우
@@ -76,6 +95,14 @@ public class Owner {
         this.lastName = lastName;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Car> getCars() {
         return cars;
     }
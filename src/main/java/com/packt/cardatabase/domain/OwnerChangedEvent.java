@@ -0,0 +1,15 @@
+package com.packt.cardatabase.domain;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ Owner가 DB에 insert/update/delete 될 때 OwnerEntityListener가 발행하는 Spring application event
+ -- owner: 변경 후 상태 (DELETED는 삭제 직전 상태)
+ -- 변경 종류는 CarChangedEvent.Type을 같이 사용
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public record OwnerChangedEvent(CarChangedEvent.Type type, OwnerSnapshot owner) {
+
+    public Long id() {
+        return owner.id();
+    }
+}
@@ -0,0 +1,36 @@
+package com.packt.cardatabase.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+// Owner의 insert/update/delete를 OwnerChangedEvent로 발행 (CarEntityListener 참고)
+public class OwnerEntityListener {
+    private final ApplicationEventPublisher publisher;
+
+    public OwnerEntityListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    void created(Owner owner) {
+        if (!ChangeEvents.isSuppressed()) {
+            publisher.publishEvent(new OwnerChangedEvent(CarChangedEvent.Type.CREATED, OwnerSnapshot.of(owner)));
+        }
+    }
+
+    @PostUpdate
+    void updated(Owner owner) {
+        if (!ChangeEvents.isSuppressed()) {
+            publisher.publishEvent(new OwnerChangedEvent(CarChangedEvent.Type.UPDATED, OwnerSnapshot.of(owner)));
+        }
+    }
+
+    @PostRemove
+    void removed(Owner owner) {
+        if (!ChangeEvents.isSuppressed()) {
+            publisher.publishEvent(new OwnerChangedEvent(CarChangedEvent.Type.DELETED, OwnerSnapshot.of(owner)));
+        }
+    }
+}
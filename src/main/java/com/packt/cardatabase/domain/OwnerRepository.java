@@ -1,9 +1,38 @@
 package com.packt.cardatabase.domain;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
+// 조회 메서드는 읽기 전용 transaction ==> replica로 라우팅 (ReadWriteDataSource), save/delete는 CrudRepository 기본값(쓰기)
+@Transactional(readOnly = true)
 public interface OwnerRepository extends CrudRepository<Owner, Long> {
+    // 쿼리 캐시: CarRepository 참고
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Owner> findByFirstName(String firstName);
+
+    // 소유자 목록 + 자동차 수: left join + group by 쿼리 1번 (자동차가 없는 소유자는 0)
+    @RestResource(exported = false)
+    @Query("select new com.packt.cardatabase.domain.OwnerSummary(o.id, o.firstName, o.lastName, count(c))"
+            + " from Owner o left join o.cars c group by o.id, o.firstName, o.lastName order by o.id")
+    List<OwnerSummary> findSummaries();
+
+    // 조건부 GET용 validator 쿼리: CarRepository 참고
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.packt.cardatabase.domain.TableVersion(count(o), max(o.id), sum(o.version)) from Owner o")
+    TableVersion tableVersion();
+
+    @RestResource(exported = false)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select o.version from Owner o where o.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,9 @@
+package com.packt.cardatabase.domain;
+
+// Owner의 변경 시점 값 (immutable): OwnerChangedEvent 참고
+public record OwnerSnapshot(Long id, String firstName, String lastName) {
+
+    public static OwnerSnapshot of(Owner owner) {
+        return new OwnerSnapshot(owner.getId(), owner.getFirstName(), owner.getLastName());
+    }
+}
@@ -0,0 +1,8 @@
+package com.packt.cardatabase.domain;
+
+/*
+ 소유자 목록용 DTO projection
+ -- carCount는 SQL의 count(...) group by 로 계산 ==> Owner.cars 컬렉션을 로딩하지 않음
+*/
+public record OwnerSummary(Long id, String firstName, String lastName, long carCount) {
+}
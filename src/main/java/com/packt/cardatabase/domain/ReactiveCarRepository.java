@@ -0,0 +1,28 @@
+package com.packt.cardatabase.domain;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import reactor.core.publisher.Flux;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ CarRepository의 검색 메서드들을 non-blocking으로 제공 (R2DBC)
+ -- Flux<T>: 0..N개의 결과를 비동기로 하나씩 전달, 구독자가 요청한 만큼만 DB에서 가져옴(backpressure)
+ -- 쿼리를 기다리는 동안 thread를 점유하지 않음
+ -- Spring Data REST는 reactive repository를 지원하지 않으므로 exported=false (ReactiveCarController가 노출)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@RepositoryRestResource(exported = false)
+public interface ReactiveCarRepository extends R2dbcRepository<CarRow, Long> {
+    Flux<CarRow> findByBrand(String brand);
+
+    Flux<CarRow> findByColor(String color);
+
+    Flux<CarRow> findByModelYear(int modelYear);
+
+    Flux<CarRow> findByBrandAndModel(String brand, String model);
+
+    Flux<CarRow> findByBrandOrColor(String brand, String color);
+
+    Flux<CarRow> findByBrandOrderByModelYearAsc(String brand);
+}
@@ -0,0 +1,16 @@
+package com.packt.cardatabase.domain;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 테이블 전체의 버전 요약: row 수, 최대 id, @Version 합계
+ -- insert ==> count/maxId 증가, delete ==> count 감소, update ==> versionSum 증가
+ -- 값이 같으면 목록 응답도 같다고 보고 weak ETag로 사용 (W/: 바이트 단위로 같다는 보장은 아님)
+ -- 빈 테이블에서는 max/sum이 null
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+public record TableVersion(Long count, Long maxId, Long versionSum) {
+
+    public String tag() {
+        return count + "-" + (maxId == null ? 0 : maxId) + "-" + (versionSum == null ? 0 : versionSum);
+    }
+}
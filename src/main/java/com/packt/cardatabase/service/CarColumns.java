@@ -0,0 +1,176 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarFilter;
+import com.packt.cardatabase.domain.CarSnapshot;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ Car를 칼럼 단위의 primitive 배열로 저장 (column store)
+ -- 문자열 칼럼(brand, model, color)은 dictionary encoding: 서로 다른 값마다 int 코드를 부여하고 코드를 저장
+    그리고 값마다 해당 값을 가진 row들의 BitSet(bitmap)을 유지 ==> brand = ? 조건은 bitmap 하나로 해결
+ -- 숫자 칼럼(modelYear, price)은 int[] 배열 ==> 범위 조건은 후보 row들만 배열에서 비교
+ -- 삭제된 row 번호는 재사용 (freeRows)
+ -- thread-safe 하지 않음: CarInventoryIndex가 lock으로 보호
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+final class CarColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Dictionary brands = new Dictionary();
+    private final Dictionary models = new Dictionary();
+    private final Dictionary colors = new Dictionary();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] brandCodes = new int[INITIAL_CAPACITY];
+    private int[] modelCodes = new int[INITIAL_CAPACITY];
+    private int[] colorCodes = new int[INITIAL_CAPACITY];
+    private int[] years = new int[INITIAL_CAPACITY];
+    private int[] prices = new int[INITIAL_CAPACITY];
+
+    private final BitSet live = new BitSet();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private final ArrayDeque<Integer> freeRows = new ArrayDeque<>();
+    private int nextRow;
+
+    int size() {
+        return rowsById.size();
+    }
+
+    boolean contains(long id) {
+        return rowsById.containsKey(id);
+    }
+
+    // insert 또는 update
+    void put(CarSnapshot car) {
+        Integer row = rowsById.get(car.id());
+        if (row == null) {
+            row = allocate();
+            rowsById.put(car.id(), row);
+        } else {
+            unindex(row);
+        }
+        ids[row] = car.id();
+        brandCodes[row] = brands.index(car.brand(), row);
+        modelCodes[row] = models.index(car.model(), row);
+        colorCodes[row] = colors.index(car.color(), row);
+        years[row] = car.modelYear();
+        prices[row] = car.price();
+        live.set(row);
+    }
+
+    void remove(long id) {
+        Integer row = rowsById.remove(id);
+        if (row != null) {
+            unindex(row);
+            live.clear(row);
+            freeRows.push(row);
+        }
+    }
+
+    // 조건을 만족하는 Car의 id들 (오름차순)
+    long[] matchingIds(CarFilter filter) {
+        BitSet result = null;
+        result = intersect(result, brands, filter.brand());
+        result = intersect(result, models, filter.model());
+        result = intersect(result, colors, filter.color());
+        if (result == null) {
+            result = (BitSet) live.clone();
+        }
+        int minYear = filter.minYear() != null ? filter.minYear() : Integer.MIN_VALUE;
+        int maxYear = filter.maxYear() != null ? filter.maxYear() : Integer.MAX_VALUE;
+        int minPrice = filter.minPrice() != null ? filter.minPrice() : Integer.MIN_VALUE;
+        int maxPrice = filter.maxPrice() != null ? filter.maxPrice() : Integer.MAX_VALUE;
+        boolean ranged = filter.minYear() != null || filter.maxYear() != null
+                || filter.minPrice() != null || filter.maxPrice() != null;
+
+        long[] matches = new long[result.cardinality()];
+        int count = 0;
+        for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+            if (ranged && (years[row] < minYear || years[row] > maxYear
+                    || prices[row] < minPrice || prices[row] > maxPrice)) {
+                continue;
+            }
+            matches[count++] = ids[row];
+        }
+        long[] sorted = Arrays.copyOf(matches, count);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static BitSet intersect(BitSet current, Dictionary dictionary, String value) {
+        if (value == null) {
+            return current;
+        }
+        BitSet rows = dictionary.rows(value);
+        if (rows == null) {
+            // 한번도 나온적 없는 값 ==> 결과 없음
+            return new BitSet();
+        }
+        if (current == null) {
+            return (BitSet) rows.clone();
+        }
+        current.and(rows);
+        return current;
+    }
+
+    private void unindex(int row) {
+        brands.unindex(brandCodes[row], row);
+        models.unindex(modelCodes[row], row);
+        colors.unindex(colorCodes[row], row);
+    }
+
+    private int allocate() {
+        if (!freeRows.isEmpty()) {
+            return freeRows.pop();
+        }
+        int row = nextRow++;
+        if (row == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            brandCodes = Arrays.copyOf(brandCodes, capacity);
+            modelCodes = Arrays.copyOf(modelCodes, capacity);
+            colorCodes = Arrays.copyOf(colorCodes, capacity);
+            years = Arrays.copyOf(years, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+        return row;
+    }
+
+    // 문자열 값 <-> int 코드, 그리고 코드별 row bitmap
+    static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<BitSet> rows = new ArrayList<>();
+
+        int index(String value, int row) {
+            int code = codes.computeIfAbsent(normalize(value), key -> {
+                rows.add(new BitSet());
+                return rows.size() - 1;
+            });
+            rows.get(code).set(row);
+            return code;
+        }
+
+        void unindex(int code, int row) {
+            rows.get(code).clear(row);
+        }
+
+        BitSet rows(String value) {
+            Integer code = codes.get(normalize(value));
+            return code == null ? null : rows.get(code);
+        }
+
+        // MariaDB의 기본 collation은 대소문자를 구분하지 않으므로 같은 결과가 나오도록 소문자로 비교
+        private static String normalize(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.packt.cardatabase.service;
+
+import java.util.List;
+
+// 대량 등록 결과: 성공/실패 건수, 실패한 줄과 이유, 처리량(rows/s)
+public record CarImportResult(long imported, long failed, List<RowError> errors,
+                              long elapsedMillis, double rowsPerSecond) {
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.packt.cardatabase.service;
+
+// 대량 등록(bulk import)의 한 줄: CSV 칼럼 순서도 같음 (ownerId는 생략 가능)
+public record CarImportRow(String brand, String model, String color, String registrationNumber,
+                           int modelYear, int price, Long ownerId) {
+}
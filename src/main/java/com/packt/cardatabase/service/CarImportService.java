@@ -0,0 +1,294 @@
+package com.packt.cardatabase.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.Owner;
+import com.packt.cardatabase.domain.OwnerRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 자동차 대량 등록 (POST /api/cars/bulk)
+ -- 요청 body를 한 줄(CSV는 한 record)씩 읽음 ==> 전체 body를 메모리에 올리지 않음
+ -- CSV: jackson-dataformat-csv ==> "Model 3, Long Range" 처럼 따옴표로 감싼 값(쉼표, "" 포함)을 지원
+    첫 record가 header(brand, model, ... 칼럼 이름)이면 header의 칼럼 순서를 사용, 없으면 CarImportRow 순서
+ -- batch-size 줄씩 묶어서(chunk) 하나의 transaction으로 처리
+    1) chunk의 ownerId들을 한번의 쿼리(where id in (...))로 조회
+    2) persist 후 flush ==> Hibernate JDBC batch insert (Car id는 pooled sequence라 insert 전에 할당 가능)
+    3) clear ==> persistence context가 커지지 않음
+ -- 형식 오류나 존재하지 않는 소유자는 해당 줄만 실패로 기록
+ -- DB 오류(중복 등록번호 등)로 chunk가 rollback되면 chunk를 반으로 나눠서 다시 시도
+    ==> 실패한 줄만 찾아서 기록하고 나머지 줄은 등록됨 (잘못된 줄 하나당 추가 transaction은 log2(batch-size)번 정도)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class CarImportService {
+    // 응답에 포함할 최대 오류 수 (실패 건수는 모두 셈)
+    static final int MAX_REPORTED_ERRORS = 1000;
+    // CSV 칼럼 이름 (header가 없으면 이 순서), ownerId는 생략 가능
+    private static final List<String> CSV_COLUMNS =
+            List.of("brand", "model", "color", "registrationnumber", "modelyear", "price", "ownerid");
+
+    private final OwnerRepository ownerRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader csvReader = new CsvMapper()
+            .enable(CsvParser.Feature.WRAP_AS_ARRAY)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .readerFor(String[].class);
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CarImportService(OwnerRepository ownerRepository, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${cardatabase.bulk.batch-size:500}") int batchSize) {
+        this.ownerRepository = ownerRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public CarImportResult importCsv(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        try (MappingIterator<String[]> records =
+                     csvReader.readValues(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvColumns columns = null;
+            while (true) {
+                long lineNumber = records.getCurrentLocation().getLineNr();
+                String[] record;
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                    // record가 시작되는 줄 (값 안에 줄바꿈이 있어도 첫 줄)
+                    lineNumber = records.getParser().currentTokenLocation().getLineNr();
+                    record = records.nextValue();
+                } catch (IOException e) {
+                    // 닫히지 않은 따옴표 등: 이후 내용은 신뢰할 수 없으므로 중단
+                    batch.report.fail(lineNumber, "Malformed CSV, import stopped: " + e.getMessage());
+                    break;
+                }
+                if (columns == null) {
+                    columns = header(record);
+                    if (columns != null) {
+                        continue;
+                    }
+                    columns = new CsvColumns(new int[]{0, 1, 2, 3, 4, 5, 6}, 6, 7);
+                }
+                try {
+                    batch.add(lineNumber, validate(parseCsv(record, columns)));
+                } catch (IllegalArgumentException e) {
+                    batch.report.fail(lineNumber, e.getMessage());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // header에 필수 칼럼이 없음
+            batch.report.fail(1, e.getMessage());
+        }
+        return batch.finish();
+    }
+
+    public CarImportResult importNdjson(InputStream body) throws IOException {
+        Batch batch = new Batch();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String text;
+            long lineNumber = 0;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(lineNumber, validate(parseJson(text)));
+                } catch (IllegalArgumentException | IOException e) {
+                    batch.report.fail(lineNumber, e.getMessage());
+                }
+            }
+        }
+        return batch.finish();
+    }
+
+    // chunk를 하나의 transaction으로 등록, rollback되면 반으로 나눠서 다시 시도 (한 줄이면 그 줄이 실패)
+    private void insert(List<Line> chunk, Report report) {
+        try {
+            insertChunk(chunk, report);
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                report.fail(chunk.get(0).number(), rootCause(e).getMessage());
+                return;
+            }
+            int half = chunk.size() / 2;
+            insert(chunk.subList(0, half), report);
+            insert(chunk.subList(half, chunk.size()), report);
+        }
+    }
+
+    private void insertChunk(List<Line> chunk, Report report) {
+        Set<Long> ownerIds = chunk.stream().map(line -> line.row().ownerId())
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        List<CarImportResult.RowError> rowErrors = new ArrayList<>();
+        int inserted = transactionTemplate.execute(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                session.setJdbcBatchSize(batchSize);
+                // 대량 등록한 자동차로 2차 캐시를 채우지 않음
+                session.setCacheMode(CacheMode.IGNORE);
+
+                Map<Long, Owner> owners = new HashMap<>();
+                ownerRepository.findAllById(ownerIds).forEach(owner -> owners.put(owner.getId(), owner));
+
+                int count = 0;
+                for (Line line : chunk) {
+                    CarImportRow row = line.row();
+                    Owner owner = null;
+                    if (row.ownerId() != null) {
+                        owner = owners.get(row.ownerId());
+                        if (owner == null) {
+                            rowErrors.add(new CarImportResult.RowError(line.number(), "Unknown owner " + row.ownerId()));
+                            continue;
+                        }
+                    }
+                    entityManager.persist(new Car(row.brand(), row.model(), row.color(),
+                            row.registrationNumber(), row.modelYear(), row.price(), owner));
+                    count++;
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return count;
+            });
+        // commit된 경우에만 반영 (rollback되면 insert()가 나눠서 다시 시도)
+        report.imported += inserted;
+        rowErrors.forEach(error -> report.fail(error.line(), error.message()));
+    }
+
+    /* header record이면 CSV_COLUMNS 순서의 칼럼 위치(없는 ownerId는 -1), 아니면 null
+     -- 대소문자, 앞뒤 공백, UTF-8 BOM 무시
+    */
+    private static CsvColumns header(String[] record) {
+        List<String> names = Arrays.stream(record)
+                .map(name -> name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                .toList();
+        if (!names.contains("brand")) {
+            return null;
+        }
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0 && i < 6) {
+                throw new IllegalArgumentException("CSV header is missing column " + CSV_COLUMNS.get(i));
+            }
+        }
+        return new CsvColumns(columns, record.length, record.length);
+    }
+
+    // CSV: brand,model,color,registrationNumber,modelYear,price[,ownerId] (header가 있으면 header 순서)
+    private static CarImportRow parseCsv(String[] record, CsvColumns columns) {
+        if (record.length < columns.min() || record.length > columns.max()) {
+            throw new IllegalArgumentException(columns.min() == columns.max()
+                    ? "Expected " + columns.min() + " columns but found " + record.length
+                    : "Expected " + columns.min() + " or " + columns.max() + " columns but found " + record.length);
+        }
+        String ownerId = columns.value(record, 6);
+        return new CarImportRow(columns.value(record, 0), columns.value(record, 1), columns.value(record, 2),
+                columns.value(record, 3), Integer.parseInt(columns.value(record, 4)),
+                Integer.parseInt(columns.value(record, 5)),
+                ownerId == null || ownerId.isEmpty() ? null : Long.valueOf(ownerId));
+    }
+
+    private CarImportRow parseJson(String text) throws IOException {
+        return objectMapper.readValue(text, CarImportRow.class);
+    }
+
+    private static CarImportRow validate(CarImportRow row) {
+        if (row.brand() == null || row.brand().isEmpty() || row.model() == null || row.model().isEmpty()) {
+            throw new IllegalArgumentException("brand and model are required");
+        }
+        return row;
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private record Line(long number, CarImportRow row) {
+    }
+
+    // CSV_COLUMNS 순서의 칼럼 위치, 허용하는 칼럼 수
+    private record CsvColumns(int[] index, int min, int max) {
+        String value(String[] record, int column) {
+            int position = index[column];
+            return position >= 0 && position < record.length ? record[position] : null;
+        }
+    }
+
+    // 읽은 줄을 batch-size개씩 모아서 등록
+    private final class Batch {
+        private final long start = System.nanoTime();
+        private final Report report = new Report();
+        private final List<Line> chunk = new ArrayList<>(batchSize);
+
+        void add(long lineNumber, CarImportRow row) {
+            chunk.add(new Line(lineNumber, row));
+            if (chunk.size() == batchSize) {
+                insert(new ArrayList<>(chunk), report);
+                chunk.clear();
+            }
+        }
+
+        CarImportResult finish() {
+            if (!chunk.isEmpty()) {
+                insert(new ArrayList<>(chunk), report);
+                chunk.clear();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            double rowsPerSecond = elapsedNanos == 0 ? 0 : report.imported * 1_000_000_000.0 / elapsedNanos;
+            return new CarImportResult(report.imported, report.failed, report.errors,
+                    elapsedNanos / 1_000_000, rowsPerSecond);
+        }
+    }
+
+    private static final class Report {
+        private long imported;
+        private long failed;
+        private final List<CarImportResult.RowError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CarImportResult.RowError(line, message));
+            }
+        }
+    }
+}
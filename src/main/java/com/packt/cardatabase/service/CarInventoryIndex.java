@@ -0,0 +1,138 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarChangedEvent;
+import com.packt.cardatabase.domain.CarFilter;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 메모리 내 자동차 인덱스 (선택 사항: cardatabase.inventory-index.enabled=true)
+ -- 애플리케이션 시작 후(ApplicationReadyEvent) DB의 모든 Car를 한번 읽어서 CarColumns에 저장
+ -- 이후에는 CarChangedEvent를 commit 이후에 받아서 동기화 ==> 검색 요청은 DB에 가지 않음
+ -- 초기화가 끝나기 전(cold)이나 비활성화된 경우 Optional.empty()를 반환 ==> 호출하는 쪽에서 DB로 fallback
+ -- 인스턴스마다 자신이 처리한 변경만 반영되므로 여러 노드로 운영할 때는 주의
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class CarInventoryIndex {
+    private static final Logger logger = LoggerFactory.getLogger(CarInventoryIndex.class);
+
+    private final CarRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int fetchSize;
+
+    // 검색은 동시에 여러 thread가, 변경은 한번에 하나의 thread만
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CarColumns columns = new CarColumns();
+    // 초기화 도중 삭제된 Car가 초기화 쿼리 결과로 다시 추가되지 않도록 기억
+    private final Set<Long> removedDuringWarmUp = new HashSet<>();
+    private volatile boolean warm;
+
+    public CarInventoryIndex(CarRepository repository, PlatformTransactionManager transactionManager,
+                             @Value("${cardatabase.inventory-index.enabled:false}") boolean enabled,
+                             @Value("${cardatabase.stream.fetch-size:500}") int fetchSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CarSnapshot> cars = repository.streamSnapshots(fetchSize)) {
+                cars.forEach(this::load);
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            removedDuringWarmUp.clear();
+            warm = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Inventory index loaded {} cars in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    // commit된 변경만 반영, transaction 밖에서 발생한 이벤트는 바로 반영 (fallbackExecution)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.type() == CarChangedEvent.Type.DELETED) {
+                columns.remove(event.id());
+                if (!warm) {
+                    removedDuringWarmUp.add(event.id());
+                }
+            } else {
+                columns.put(event.after());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 조건을 만족하는 Car의 id들 (오름차순), 인덱스가 준비되지 않았으면 empty
+    public Optional<long[]> matchingIds(CarFilter filter) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(columns.matchingIds(filter));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void load(CarSnapshot car) {
+        lock.writeLock().lock();
+        try {
+            // 초기화 도중 이벤트로 먼저 반영된 값이 더 최신이므로 덮어쓰지 않음
+            if (!columns.contains(car.id()) && !removedDuringWarmUp.contains(car.id())) {
+                columns.put(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.packt.cardatabase.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.CarRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 단일 자동차 응답(/cars/{id})의 직렬화된 byte[] 캐시
+ -- key: (id, @Version, 형식) ==> 자동차가 수정되면 version이 바뀌므로 옛 값은 다시 사용되지 않고 LRU로 밀려남
+ -- 요청마다 version만 조회(쿼리 캐시 사용)하고, 같은 version의 bytes가 있으면 entity 로딩과 직렬화를 모두 생략
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class CarRepresentationCache {
+
+    public enum Format {
+        JSON, CBOR, SMILE;
+
+        // strong ETag는 representation(형식)마다 달라야 함: "3", "3-cbor", "3-smile"
+        public String etag(long version) {
+            return "\"" + withSuffix(String.valueOf(version)) + "\"";
+        }
+
+        // 컬렉션의 weak ETag도 형식마다 다름: W/"tag", W/"tag-cbor", W/"tag-smile"
+        public String weakEtag(String tag) {
+            return "W/\"" + withSuffix(tag) + "\"";
+        }
+
+        private String withSuffix(String value) {
+            return this == JSON ? value : value + "-" + name().toLowerCase(Locale.ROOT);
+        }
+
+        // Accept 헤더로 응답 형식 결정 (q 값이 큰 것부터, JSON 계열이나 */*, 알 수 없으면 JSON)
+        // ConditionalGetFilter가 controller/Spring Data REST와 같은 형식의 ETag를 계산할 때 사용
+        public static Format fromAccept(String accept) {
+            if (accept == null || accept.isBlank()) {
+                return JSON;
+            }
+            List<MediaType> types;
+            try {
+                types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            } catch (InvalidMediaTypeException e) {
+                return JSON;
+            }
+            types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            for (MediaType type : types) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+                String subtype = type.getSubtype();
+                if ("cbor".equals(subtype)) {
+                    return CBOR;
+                }
+                if ("x-jackson-smile".equals(subtype)) {
+                    return SMILE;
+                }
+                if (type.isWildcardType() || type.isWildcardSubtype() || subtype.endsWith("json")) {
+                    return JSON;
+                }
+            }
+            return JSON;
+        }
+    }
+
+    // version: ETag로 사용, bytes: 응답 body
+    public record Representation(long version, byte[] bytes) {
+    }
+
+    private record Key(long id, long version, Format format) {
+    }
+
+    private final CarRepository repository;
+    private final ObjectMapper json;
+    private final ObjectMapper cbor;
+    private final ObjectMapper smile;
+    private final Cache<Key, byte[]> cache;
+
+    public CarRepresentationCache(CarRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                  @Value("${cardatabase.representation-cache.max-size:10000}") long maxSize) {
+        this.repository = repository;
+        this.json = objectMapper;
+        this.cbor = objectMapper.copyWith(new CBORFactory());
+        this.smile = objectMapper.copyWith(new SmileFactory());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cars.representations");
+    }
+
+    public Optional<Representation> get(long id, Format format) {
+        return repository.findVersionById(id).flatMap(version -> {
+            byte[] bytes = cache.getIfPresent(new Key(id, version, format));
+            if (bytes != null) {
+                return Optional.of(new Representation(version, bytes));
+            }
+            // 캐시에 없으면 entity를 읽고, 실제로 읽은 version으로 저장 (그 사이에 수정됐을 수 있음)
+            return repository.findById(id).map(car -> {
+                byte[] serialized = serialize(car, format);
+                cache.put(new Key(id, car.getVersion(), format), serialized);
+                return new Representation(car.getVersion(), serialized);
+            });
+        });
+    }
+
+    private byte[] serialize(Car car, Format format) {
+        ObjectMapper mapper = switch (format) {
+            case JSON -> json;
+            case CBOR -> cbor;
+            case SMILE -> smile;
+        };
+        try {
+            return mapper.writeValueAsBytes(car);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
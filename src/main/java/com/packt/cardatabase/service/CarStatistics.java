@@ -0,0 +1,170 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarChangedEvent;
+import com.packt.cardatabase.domain.CarGroupTotals;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 자동차 통계 (/api/cars/stats): 브랜드, 색상, 연식별 자동차 수와 평균 가격
+ -- (brand, color, modelYear) 조합별 count/가격 합계를 메모리에 보관 (조합 수는 수천개 수준)
+    브랜드별, 색상별, 연식별 통계는 조회할 때 이 조합들을 합산 ==> car 테이블을 읽지 않음
+ -- 초기값: GROUP BY 쿼리 1번, 모든 bean이 생성된 직후(web server 시작 전) ==> 초기화 도중의 HTTP 변경이 없음
+ -- 이후: CarChangedEvent(commit 이후)의 변경 전 값을 빼고 변경 후 값을 더함
+    이벤트 없이 대량으로 입력된 경우(InventoryGenerator)는 끝난 뒤 GROUP BY로 다시 계산
+ -- 평균은 합계/개수로 계산하므로 삭제에도 정확함 (최소/최대값은 삭제하면 다시 계산해야 해서 제공하지 않음)
+ -- 인스턴스마다 자신이 처리한 변경만 반영 (CarInventoryIndex와 같은 제약)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class CarStatistics implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(CarStatistics.class);
+
+    private record Group(String brand, String color, int modelYear) {
+    }
+
+    private static final class Totals {
+        private long count;
+        private long priceSum;
+    }
+
+    private final CarRepository repository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Group, Totals> groups = new HashMap<>();
+
+    public CarStatistics(CarRepository repository, @Value("${cardatabase.stats.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reload();
+    }
+
+    @EventListener
+    public void onInventoryGenerated(InventoryGenerator.Result result) {
+        reload();
+    }
+
+    private void reload() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<CarGroupTotals> rows = repository.groupTotals();
+        lock.writeLock().lock();
+        try {
+            groups.clear();
+            for (CarGroupTotals row : rows) {
+                Totals totals = groups.computeIfAbsent(new Group(row.brand(), row.color(), row.modelYear()),
+                        group -> new Totals());
+                totals.count += row.count();
+                totals.priceSum += row.priceSum();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Car statistics initialized from {} groups in {} ms", rows.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                apply(event.before(), -1);
+            }
+            if (event.after() != null) {
+                apply(event.after(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(CarSnapshot car, int sign) {
+        Group group = new Group(car.brand(), car.color(), car.modelYear());
+        Totals totals = groups.computeIfAbsent(group, key -> new Totals());
+        totals.count += sign;
+        totals.priceSum += (long) sign * car.price();
+        if (totals.count <= 0) {
+            groups.remove(group);
+        }
+    }
+
+    // 비활성화된 경우 Optional.empty()
+    public Optional<InventoryStats> stats() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Map<String, long[]> byBrand = new HashMap<>();
+        Map<String, long[]> byColor = new HashMap<>();
+        Map<String, long[]> byModelYear = new HashMap<>();
+        SortedMap<String, SortedMap<Integer, Long>> yearsByBrand =
+                new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        long[] total = new long[2];
+
+        lock.readLock().lock();
+        try {
+            groups.forEach((group, totals) -> {
+                add(byBrand, group.brand(), totals);
+                add(byColor, group.color(), totals);
+                add(byModelYear, Integer.toString(group.modelYear()), totals);
+                yearsByBrand.computeIfAbsent(group.brand(), brand -> new TreeMap<>())
+                        .merge(group.modelYear(), totals.count, Long::sum);
+                total[0] += totals.count;
+                total[1] += totals.priceSum;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Optional.of(new InventoryStats(bucket("total", total), buckets(byBrand, Function.identity()),
+                buckets(byColor, Function.identity()), buckets(byModelYear, Integer::valueOf), yearsByBrand));
+    }
+
+    private static void add(Map<String, long[]> buckets, String key, Totals totals) {
+        long[] values = buckets.computeIfAbsent(key, k -> new long[2]);
+        values[0] += totals.count;
+        values[1] += totals.priceSum;
+    }
+
+    // key 순서로 정렬 (연식은 숫자 순서)
+    private static <K extends Comparable<K>> List<InventoryStats.Bucket> buckets(Map<String, long[]> values,
+                                                                                   Function<String, K> sortKey) {
+        List<InventoryStats.Bucket> result = new ArrayList<>(values.size());
+        values.forEach((key, totals) -> result.add(bucket(key, totals)));
+        result.sort(Comparator.comparing(InventoryStats.Bucket::key,
+                Comparator.nullsFirst(Comparator.comparing(sortKey))));
+        return result;
+    }
+
+    private static InventoryStats.Bucket bucket(String key, long[] totals) {
+        return new InventoryStats.Bucket(key, totals[0], totals[0] == 0 ? 0 : (double) totals[1] / totals[0]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.packt.cardatabase.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.CarRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ NDJSON(newline delimited JSON) 스트리밍
+ -- 한 줄에 Car 하나씩 JSON으로 써서 client에게 바로 전송
+ -- row를 읽자마자 쓰고 persistence context에서 detach ==> 테이블 크기와 상관없이 heap 사용량이 일정
+ -- StreamingResponseBody는 request thread가 아닌 별도의 thread에서 실행되므로 transaction을 직접 열어야 함
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class CarStreamService {
+    private static final byte[] NEWLINE = {'\n'};
+
+    private final CarRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int fetchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CarStreamService(CarRepository repository, ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${cardatabase.stream.fetch-size:500}") int fetchSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Car> cars = repository.streamAll(fetchSize)) {
+                int[] written = {0};
+                cars.forEach(car -> {
+                    write(out, car);
+                    entityManager.detach(car);
+                    // 소유자(Owner)도 persistence context에 쌓이므로 fetch size 단위로 비워줌
+                    if (++written[0] % fetchSize == 0) {
+                        entityManager.clear();
+                    }
+                });
+            }
+        });
+        out.flush();
+    }
+
+    private void write(OutputStream out, Car car) {
+        try {
+            // writeValue(out, ..)는 기본적으로 stream을 close하기 때문에 byte[]로 변환해서 씀
+            out.write(objectMapper.writeValueAsBytes(car));
+            out.write(NEWLINE);
+        } catch (IOException e) {
+            // client 연결이 끊긴 경우 등 => stream과 transaction을 함께 종료
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarChangedEvent;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 자동완성 인덱스 (/api/cars/search/suggest)
+ -- "like %검색어%" 쿼리는 인덱스를 사용할 수 없어서 car 테이블 전체를 읽음 ==> 메모리의 SuggestTerms에서 검색
+ -- 초기화, 동기화 방식은 CarInventoryIndex와 같음: 시작 후 한번 전체를 읽고, 이후에는 CarChangedEvent로 갱신
+ -- 초기화가 끝나기 전에 이벤트로 반영된 자동차(CommandLineRunner의 예제 데이터, 초기화 도중의 변경)는 전체 읽기에서 건너뜀
+    ==> 자동차 수가 두번 반영되지 않음, 이미 읽은 자동차인지는 마지막으로 읽은 id로 판단 (streamSnapshots는 id 순서)
+ -- brand, model, 등록번호가 바뀌지 않은 수정(가격 등)은 무시
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class CarSuggestIndex {
+    private static final Logger logger = LoggerFactory.getLogger(CarSuggestIndex.class);
+
+    private final CarRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int fetchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestTerms terms = new SuggestTerms();
+    // 초기화 도중 이벤트로 반영된 자동차 id, 마지막으로 읽은 id (lock으로 보호)
+    private final Set<Long> changedDuringWarmUp = new HashSet<>();
+    private long lastLoadedId = Long.MIN_VALUE;
+    private volatile boolean warm;
+
+    public CarSuggestIndex(CarRepository repository, PlatformTransactionManager transactionManager,
+                           @Value("${cardatabase.suggest.enabled:true}") boolean enabled,
+                           @Value("${cardatabase.stream.fetch-size:500}") int fetchSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.fetchSize = fetchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CarSnapshot> cars = repository.streamSnapshots(fetchSize)) {
+                cars.forEach(this::load);
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            changedDuringWarmUp.clear();
+            warm = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Suggest index loaded {} terms in {} ms", size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (!enabled || sameTerms(event.before(), event.after())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // 초기화 도중: 아직 인덱스에 없는 자동차(읽기 전)의 이전 값은 빼지 않음
+            boolean indexed = warm || changedDuringWarmUp.contains(event.id()) || event.id() <= lastLoadedId;
+            if (event.before() != null && indexed) {
+                terms.remove(event.before());
+            }
+            if (event.after() != null) {
+                terms.add(event.after());
+            }
+            if (!warm) {
+                changedDuringWarmUp.add(event.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 인덱스가 준비되지 않았으면 empty
+    public Optional<List<CarSuggestion>> suggest(String query, int limit) {
+        if (!warm) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(terms.search(query, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean sameTerms(CarSnapshot before, CarSnapshot after) {
+        return before != null && after != null
+                && Objects.equals(before.brand(), after.brand())
+                && Objects.equals(before.model(), after.model())
+                && Objects.equals(before.registrationNumber(), after.registrationNumber());
+    }
+
+    private void load(CarSnapshot car) {
+        lock.writeLock().lock();
+        try {
+            lastLoadedId = car.id();
+            if (!changedDuringWarmUp.contains(car.id())) {
+                terms.add(car);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.packt.cardatabase.service;
+
+/*
+ 자동완성 결과 한 건 (/api/cars/search/suggest)
+ -- field: 일치한 항목, value: 값 (처음 등록된 대소문자 그대로), count: 이 값을 가진 자동차 수
+ -- carId: 등록번호(REGISTRATION_NUMBER)일 때 해당 자동차의 id, 그 외에는 null
+*/
+public record CarSuggestion(Field field, String value, long count, Long carId) {
+
+    // 순서가 순위: 같은 조건이면 브랜드 > 모델 > 등록번호
+    public enum Field { BRAND, MODEL, REGISTRATION_NUMBER }
+}
@@ -0,0 +1,11 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarChangedEvent;
+
+/*
+ 변경 feed(/api/cars/changes)로 전달되는 변경 한 건
+ -- sequence: 프로세스 안에서의 순서, SSE event id는 "epoch-sequence" (Last-Event-ID로 재연결할 때 사용)
+ -- entity: "car" 또는 "owner", data: 변경 후 상태 (CarSnapshot/OwnerSnapshot, 삭제된 car는 null)
+*/
+public record InventoryChange(long sequence, String entity, CarChangedEvent.Type type, Long id, Object data) {
+}
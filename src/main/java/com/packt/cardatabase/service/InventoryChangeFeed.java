@@ -0,0 +1,226 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarChangedEvent;
+import com.packt.cardatabase.domain.OwnerChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 자동차/소유자 변경 feed (Server-Sent Events)
+ -- CarChangedEvent/OwnerChangedEvent를 commit 이후에 받아서 연결된 모든 client에게 전달
+    (entity listener를 거치므로 Spring Data REST의 POST/PUT/PATCH/DELETE, 대량 입력 등 모든 변경이 포함됨)
+ -- 최근 변경 replayBufferSize건을 메모리에 보관: client가 Last-Event-ID로 재연결하면 놓친 변경만 다시 보냄
+    보관 범위보다 오래된 id면 "reset" event ==> client는 전체 목록을 한번 다시 읽어야 함
+ -- event id: "epoch-sequence", epoch는 프로세스마다 다름
+    재시작 후, 또는 다른 node(round-robin)로 재연결해서 이 프로세스가 발급하지 않은 id가 오면 "reset"
+ -- 전송: client마다 보낸 위치(lastSent)만 기억하고 replay buffer에서 꺼내서 보냄 (변경마다 작업을 큐에 넣지 않음)
+    ==> 대량 입력(수십만 건)에도 메모리는 replay buffer 크기로 제한됨
+    client당 동시에 하나의 전송 작업만 sender pool(sender-threads)에서 실행 ==> 느린 client가 다른 client를 막지 않음
+    buffer에서 밀려난 변경이 생길 만큼 뒤처진 client는 "reset"을 보내고 연결을 끊음 (대량 입력은 reset 한번으로 합쳐짐)
+ -- 인스턴스마다 자신이 처리한 변경만 보냄 (CarInventoryIndex와 같은 제약)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class InventoryChangeFeed {
+    private final int replayBufferSize;
+    private final long timeoutMillis;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // 최근 변경 목록, this로 동기화
+    private final Deque<InventoryChange> replayBuffer = new ArrayDeque<>();
+    private long sequence;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders;
+
+    public InventoryChangeFeed(MeterRegistry meterRegistry,
+                               @Value("${cardatabase.changes.replay-size:1000}") int replayBufferSize,
+                               @Value("${cardatabase.changes.timeout:30m}") Duration timeout,
+                               @Value("${cardatabase.changes.sender-threads:4}") int senderThreads) {
+        this.replayBufferSize = replayBufferSize;
+        this.timeoutMillis = timeout.toMillis();
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemonThreadFactory());
+        Gauge.builder("cars.changes.subscribers", subscribers, List::size)
+                .description("Clients connected to /api/cars/changes")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        publish("car", event.type(), event.id(), event.after());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOwnerChanged(OwnerChangedEvent event) {
+        publish("owner", event.type(), event.id(),
+                event.type() == CarChangedEvent.Type.DELETED ? null : event.owner());
+    }
+
+    /* 새 client 등록
+     -- lastEventId: 마지막으로 받은 event id (처음 연결이면 null ==> 이후의 변경만 전달)
+    */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        synchronized (this) {
+            long oldest = replayBuffer.isEmpty() ? sequence + 1 : replayBuffer.getFirst().sequence();
+            Long resumeFrom = lastEventId == null ? Long.valueOf(sequence) : parse(lastEventId);
+            if (resumeFrom == null || resumeFrom > sequence || resumeFrom + 1 < oldest) {
+                // 다른 프로세스의 id, 또는 놓친 변경이 이미 버퍼에서 밀려남
+                subscriber.resetPending = true;
+                subscriber.lastSent = sequence;
+            } else {
+                subscriber.lastSent = resumeFrom;
+            }
+        }
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    private void publish(String entity, CarChangedEvent.Type type, Long id, Object data) {
+        synchronized (this) {
+            replayBuffer.addLast(new InventoryChange(++sequence, entity, type, id, data));
+            if (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            schedule(subscriber);
+        }
+    }
+
+    // client당 전송 작업은 하나만 (이미 실행 중이면 그 작업이 새 변경까지 보냄)
+    private void schedule(Subscriber subscriber) {
+        if (!senders.isShutdown() && subscriber.scheduled.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.resetPending) {
+                subscriber.resetPending = false;
+                sendReset(subscriber, subscriber.lastSent);
+            }
+            List<InventoryChange> pending;
+            while (!(pending = changesAfter(subscriber)).isEmpty()) {
+                for (InventoryChange change : pending) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(eventId(change.sequence()))
+                            .name(change.entity())
+                            .data(change, MediaType.APPLICATION_JSON));
+                    subscriber.lastSent = change.sequence();
+                }
+            }
+        } catch (FellBehind e) {
+            // 뒤처진 client: reset을 보내고 연결 종료 ==> client는 목록을 다시 읽고 재연결
+            subscribers.remove(subscriber);
+            try {
+                sendReset(subscriber, e.current);
+                subscriber.emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                subscriber.emitter.completeWithError(ex);
+            }
+            return;
+        } catch (IOException | IllegalStateException e) {
+            // 연결이 끊어진 client
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return;
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        // flag를 내리는 사이에 publish된 변경
+        synchronized (this) {
+            if (sequence <= subscriber.lastSent) {
+                return;
+            }
+        }
+        schedule(subscriber);
+    }
+
+    private synchronized List<InventoryChange> changesAfter(Subscriber subscriber) throws FellBehind {
+        long oldest = replayBuffer.isEmpty() ? sequence + 1 : replayBuffer.getFirst().sequence();
+        if (subscriber.lastSent + 1 < oldest) {
+            throw new FellBehind(sequence);
+        }
+        return replayBuffer.stream().filter(change -> change.sequence() > subscriber.lastSent).toList();
+    }
+
+    private void sendReset(Subscriber subscriber, long current) throws IOException {
+        subscriber.emitter.send(SseEmitter.event().id(eventId(current)).name("reset").data(current));
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // 이 프로세스가 발급한 id이면 sequence, 아니면 null
+    private Long parse(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator <= 0 || !epoch.equals(eventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.valueOf(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // daemon thread: web server가 없는 실행(데이터 생성 등)에서 JVM 종료를 막지 않음
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("car-changes-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        // 아래 필드는 전송 작업(한번에 하나)에서만 변경, 등록 시 초기값은 schedule 전에 설정
+        private volatile long lastSent;
+        private volatile boolean resetPending;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    private static final class FellBehind extends Exception {
+        private final long current;
+
+        private FellBehind(long current) {
+            super(null, null, false, false);
+            this.current = current;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.ChangeEvents;
+import com.packt.cardatabase.domain.Owner;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 대량의 예제 데이터 생성 (인덱스, 캐시, 페이징을 실제와 비슷한 규모에서 시험하기 위함)
+ -- 실행: ./gradlew generateInventory -Pgenerator.cars=2000000  (또는 --spring.profiles.active=generate)
+ -- 분포
+    브랜드: 몇몇 브랜드에 치우침 (Toyota, Ford가 많고 Tesla, Volvo는 적음), 모델은 브랜드별 목록
+    연식: 최근 연식이 많음, 가격: 모델의 기본 가격에서 연식만큼 감가 + 약간의 noise ==> 연식과 가격이 상관관계
+    소유자: 평균 cars-per-owner대, 소수의 소유자가 많은 자동차를 가짐 (power law), 일부 자동차는 소유자 없음
+ -- 재현 가능: chunk마다 (seed, chunk 번호)로 난수를 만들기 때문에 thread 수나 실행 순서와 관계없이 같은 데이터
+    (sequence로 할당되는 id 값은 thread 실행 순서에 따라 달라질 수 있음, 내용과 분포는 항상 같음)
+ -- chunk(batch-size대)마다 transaction 하나, 여러 thread에서 동시에 JDBC batch insert
+ -- row마다 CarChangedEvent/OwnerChangedEvent를 발행하지 않음 (ChangeEvents.suppressed)
+    끝나면 Result를 이벤트로 한번 발행 ==> CarStatistics는 GROUP BY로 다시 계산
+    메모리 인덱스(CarSuggestIndex, CarInventoryIndex)는 시작 후(ApplicationReadyEvent) DB 전체를 읽으므로 생성된 데이터가 포함됨
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class InventoryGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryGenerator.class);
+
+    // 브랜드별 비율(%), 모델, 신차 기본 가격
+    private record Brand(String name, int weight, String[] models, int basePrice) {
+    }
+
+    private static final Brand[] BRANDS = {
+            new Brand("Toyota", 22, new String[]{"Corolla", "Camry", "RAV4", "Prius", "Yaris"}, 32000),
+            new Brand("Ford", 18, new String[]{"Focus", "Fiesta", "Mustang", "Kuga", "Puma"}, 30000),
+            new Brand("Honda", 12, new String[]{"Civic", "Accord", "CR-V", "Jazz"}, 29000),
+            new Brand("Nissan", 10, new String[]{"Leaf", "Micra", "Qashqai", "Juke"}, 27000),
+            new Brand("Hyundai", 9, new String[]{"i30", "Tucson", "Kona", "Ioniq"}, 28000),
+            new Brand("Kia", 8, new String[]{"Ceed", "Sportage", "Niro", "Picanto"}, 26000),
+            new Brand("BMW", 7, new String[]{"3 Series", "5 Series", "X3", "i4"}, 52000),
+            new Brand("Audi", 6, new String[]{"A3", "A4", "Q5", "e-tron"}, 49000),
+            new Brand("Volvo", 4, new String[]{"XC40", "XC60", "V60"}, 47000),
+            new Brand("Tesla", 4, new String[]{"Model 3", "Model Y", "Model S"}, 55000)
+    };
+    private static final String[] COLORS = {"White", "Black", "Silver", "Grey", "Blue", "Red", "Green"};
+    private static final int[] COLOR_WEIGHTS = {25, 22, 18, 15, 10, 8, 2};
+    private static final String[] FIRST_NAMES = {"John", "Mary", "James", "Linda", "Robert", "Patricia", "Michael",
+            "Jennifer", "David", "Susan", "Daniel", "Lisa", "Paul", "Karen", "Mark", "Nancy"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Miller", "Davis",
+            "Wilson", "Anderson", "Taylor", "Thomas", "Moore", "Martin", "Jackson", "White", "Harris"};
+    private static final int NEWEST_YEAR = 2025, OLDEST_YEAR = 2000;
+
+    public record Result(long owners, long cars, long elapsedMillis, double carsPerSecond) {
+    }
+
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publisher;
+    private final int batchSize;
+    private final int threads;
+    private final int carsPerOwner;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InventoryGenerator(PlatformTransactionManager transactionManager, ApplicationEventPublisher publisher,
+                              @Value("${cardatabase.bulk.batch-size:500}") int batchSize,
+                              @Value("${cardatabase.generator.threads:4}") int threads,
+                              @Value("${cardatabase.generator.cars-per-owner:5}") int carsPerOwner) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.carsPerOwner = carsPerOwner;
+    }
+
+    public Result generate(int cars, long seed) {
+        long start = System.nanoTime();
+        int ownerCount = Math.max(1, cars / carsPerOwner);
+        int ownerChunks = (ownerCount + batchSize - 1) / batchSize;
+        int carChunks = (cars + batchSize - 1) / batchSize;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("generator-"));
+        try {
+            // 1) 소유자: chunk 순서대로 id를 모아서 자동차가 chunk 번호와 관계없이 같은 소유자를 참조하도록 함
+            List<Future<long[]>> ownerFutures = new ArrayList<>(ownerChunks);
+            for (int chunk = 0; chunk < ownerChunks; chunk++) {
+                int first = chunk * batchSize;
+                int count = Math.min(batchSize, ownerCount - first);
+                long chunkSeed = chunkSeed(seed, -1 - chunk);
+                ownerFutures.add(executor.submit(() -> insertOwners(count, chunkSeed)));
+            }
+            long[] ownerIds = new long[ownerCount];
+            int position = 0;
+            for (Future<long[]> future : ownerFutures) {
+                long[] ids = future.get();
+                System.arraycopy(ids, 0, ownerIds, position, ids.length);
+                position += ids.length;
+            }
+
+            // 2) 자동차
+            AtomicLong inserted = new AtomicLong();
+            List<Future<?>> carFutures = new ArrayList<>(carChunks);
+            for (int chunk = 0; chunk < carChunks; chunk++) {
+                int first = chunk * batchSize;
+                int count = Math.min(batchSize, cars - first);
+                long chunkSeed = chunkSeed(seed, chunk);
+                carFutures.add(executor.submit(() -> {
+                    insertCars(first, count, chunkSeed, ownerIds);
+                    long total = inserted.addAndGet(count);
+                    if (total / batchSize % 100 == 0) {
+                        logger.info("Generated {} / {} cars", total, cars);
+                    }
+                }));
+            }
+            for (Future<?> future : carFutures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Inventory generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Inventory generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        Result result = new Result(ownerCount, cars, elapsedNanos / 1_000_000,
+                elapsedNanos == 0 ? 0 : cars * 1_000_000_000.0 / elapsedNanos);
+        logger.info("Generated {} owners and {} cars in {} ms ({} cars/s)", result.owners(), result.cars(),
+                result.elapsedMillis(), Math.round(result.carsPerSecond()));
+        publisher.publishEvent(result);
+        return result;
+    }
+
+    private long[] insertOwners(int count, long chunkSeed) {
+        SplittableRandom random = new SplittableRandom(chunkSeed);
+        return ChangeEvents.suppressed(() -> transactionTemplate.execute(status -> {
+            prepareSession();
+            List<Owner> owners = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Owner owner = new Owner(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                        LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                entityManager.persist(owner);
+                owners.add(owner);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return owners.stream().mapToLong(Owner::getId).toArray();
+        }));
+    }
+
+    private void insertCars(int first, int count, long chunkSeed, long[] ownerIds) {
+        SplittableRandom random = new SplittableRandom(chunkSeed);
+        ChangeEvents.suppressed(() -> transactionTemplate.execute(status -> {
+            prepareSession();
+            for (int i = 0; i < count; i++) {
+                Brand brand = pickBrand(random);
+                String model = brand.models()[random.nextInt(brand.models().length)];
+                int age = Math.min(NEWEST_YEAR - OLDEST_YEAR, (int) Math.abs(nextGaussian(random) * 6));
+                // 1년마다 약 12% 감가, 모델마다 +-20%, 차량마다 +-10%
+                double modelFactor = 0.8 + 0.4 * (Math.floorMod(model.hashCode(), 100) / 100.0);
+                double price = brand.basePrice() * modelFactor * Math.pow(0.88, age) * (0.9 + 0.2 * random.nextDouble());
+                // power law: 앞쪽 소유자일수록 자동차가 많음, 10%는 소유자 없음
+                Owner owner = random.nextInt(10) == 0 ? null : entityManager.getReference(Owner.class,
+                        ownerIds[(int) (ownerIds.length * Math.pow(random.nextDouble(), 3))]);
+                entityManager.persist(new Car(brand.name(), model, pick(COLORS, COLOR_WEIGHTS, random),
+                        registrationNumber(first + i), NEWEST_YEAR - age,
+                        (int) Math.max(1000, Math.round(price / 100) * 100), owner));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return null;
+        }));
+    }
+
+    private void prepareSession() {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        session.setCacheMode(CacheMode.IGNORE);
+    }
+
+    private static Brand pickBrand(SplittableRandom random) {
+        int value = random.nextInt(100);
+        for (Brand brand : BRANDS) {
+            value -= brand.weight();
+            if (value < 0) {
+                return brand;
+            }
+        }
+        return BRANDS[BRANDS.length - 1];
+    }
+
+    private static String pick(String[] values, int[] weights, SplittableRandom random) {
+        int value = random.nextInt(100);
+        for (int i = 0; i < values.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return values[i];
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    // Box-Muller (SplittableRandom에는 nextGaussian이 없음)
+    private static double nextGaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    // 전체에서 유일한 등록번호: 번호 순서대로 AAA-0000 ~
+    private static String registrationNumber(int index) {
+        int number = index % 10000;
+        int letters = index / 10000;
+        char[] prefix = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            prefix[i] = (char) ('A' + letters % 26);
+            letters /= 26;
+        }
+        return new String(prefix) + "-" + String.format("%04d", number);
+    }
+
+    private static long chunkSeed(long seed, long chunk) {
+        return seed * 0x9E3779B97F4A7C15L + chunk;
+    }
+}
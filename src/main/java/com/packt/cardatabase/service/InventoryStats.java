@@ -0,0 +1,16 @@
+package com.packt.cardatabase.service;
+
+import java.util.List;
+import java.util.SortedMap;
+
+/*
+ /api/cars/stats 응답
+ -- total: 전체, byBrand/byColor/byModelYear: 그룹별 자동차 수와 평균 가격
+ -- yearsByBrand: 브랜드별 연식 histogram (연식 ==> 자동차 수)
+*/
+public record InventoryStats(Bucket total, List<Bucket> byBrand, List<Bucket> byColor, List<Bucket> byModelYear,
+                             SortedMap<String, SortedMap<Integer, Long>> yearsByBrand) {
+
+    public record Bucket(String key, long count, double averagePrice) {
+    }
+}
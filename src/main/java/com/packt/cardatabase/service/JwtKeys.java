@@ -0,0 +1,177 @@
+package com.packt.cardatabase.service;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ JWT 서명/검증 key 목록 (JwtService 참고)
+ -- 모든 node가 같은 key를 설정에서 읽음 ==> 어느 node가 발급한 토큰이든 다른 node에서 검증 가능 (sticky session 불필요)
+ -- 토큰 header의 kid(key id)로 검증 key를 선택 ==> 여러 key를 동시에 검증에 사용할 수 있어서 key 교체(rotation)가 가능
+    1) 새 key를 모든 node의 검증 목록에 추가  2) signing-key-id를 새 key로 변경
+    3) 이전 key로 발급된 토큰이 모두 만료되면(EXPIRATIONTIME) 목록에서 제거
+ -- cardatabase.jwt.algorithm
+    HS256: 공유 비밀키, cardatabase.jwt.keys=kid:Base64(32바이트 이상),...
+    ES256: 비대칭 key, cardatabase.jwt.keys=kid:Base64(X.509 공개키),... + 서명하는 node만 signing-private-key(PKCS#8)
+           검증만 하는 node는 공개키만 가지고 있으면 됨 (비밀키가 유출될 위험이 줄어듦)
+ -- cardatabase.jwt.keystore: PKCS12 keystore 파일 (alias = kid)
+    HS256은 secret key entry, ES256은 private key entry(서명 + 인증서의 공개키로 검증) 또는 인증서 entry(검증만)
+ -- 아무 key도 설정하지 않으면 시작할 때 임의의 HS256 key를 만듦 (개발/테스트용, 이 node가 발급한 토큰만 검증 가능)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Component
+public class JwtKeys {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeys.class);
+    static final String GENERATED_KEY_ID = "local";
+
+    private final SignatureAlgorithm algorithm;
+    private final Map<String, Key> verificationKeys;
+    private final String signingKeyId;
+    private final Key signingKey;
+
+    public JwtKeys(@Value("${cardatabase.jwt.algorithm:HS256}") SignatureAlgorithm algorithm,
+                   @Value("${cardatabase.jwt.keys:}") List<String> keys,
+                   @Value("${cardatabase.jwt.signing-key-id:}") String signingKeyId,
+                   @Value("${cardatabase.jwt.signing-private-key:}") String signingPrivateKey,
+                   @Value("${cardatabase.jwt.keystore:}") String keystore,
+                   @Value("${cardatabase.jwt.keystore-password:}") String keystorePassword) {
+        if (algorithm != SignatureAlgorithm.HS256 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Unsupported JWT algorithm " + algorithm + " (HS256 or ES256)");
+        }
+        Map<String, Key> verification = new LinkedHashMap<>();
+        Map<String, Key> signing = new LinkedHashMap<>();
+        for (String entry : keys) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("cardatabase.jwt.keys entries must be kid:base64-key");
+            }
+            String kid = entry.substring(0, separator).trim();
+            byte[] bytes = Base64.getDecoder().decode(entry.substring(separator + 1).trim());
+            if (algorithm == SignatureAlgorithm.HS256) {
+                SecretKey key = Keys.hmacShaKeyFor(bytes);
+                verification.put(kid, key);
+                signing.put(kid, key);
+            } else {
+                verification.put(kid, decode(bytes, false));
+            }
+        }
+        if (!keystore.isBlank()) {
+            loadKeystore(Path.of(keystore), keystorePassword.toCharArray(), verification, signing);
+        }
+
+        if (verification.isEmpty()) {
+            logger.warn("No JWT keys configured (cardatabase.jwt.keys / cardatabase.jwt.keystore): "
+                    + "using a generated key, tokens from this node are not accepted by other nodes");
+            SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            this.algorithm = SignatureAlgorithm.HS256;
+            this.verificationKeys = Map.of(GENERATED_KEY_ID, key);
+            this.signingKeyId = GENERATED_KEY_ID;
+            this.signingKey = key;
+            return;
+        }
+        String kid = signingKeyId.isBlank() ? verification.keySet().iterator().next() : signingKeyId;
+        if (!verification.containsKey(kid)) {
+            throw new IllegalStateException("JWT signing key id " + kid + " is not among the configured keys");
+        }
+        this.algorithm = algorithm;
+        this.verificationKeys = Collections.unmodifiableMap(verification);
+        this.signingKeyId = kid;
+        // ES256: 개인키가 없는 node는 검증만 함 (signingKey == null)
+        this.signingKey = !signingPrivateKey.isBlank()
+                ? decode(Base64.getDecoder().decode(signingPrivateKey.trim()), true)
+                : signing.get(kid);
+    }
+
+    JwtKeys(SignatureAlgorithm algorithm, Map<String, Key> verificationKeys, String signingKeyId, Key signingKey) {
+        this.algorithm = algorithm;
+        this.verificationKeys = Map.copyOf(verificationKeys);
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+    }
+
+    // 임의의 HS256 key 하나 (벤치마크, 테스트용)
+    public static JwtKeys generated() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        return new JwtKeys(SignatureAlgorithm.HS256, Map.of(GENERATED_KEY_ID, key), GENERATED_KEY_ID, key);
+    }
+
+    SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    String signingKeyId() {
+        return signingKeyId;
+    }
+
+    Key signingKey() {
+        if (signingKey == null) {
+            throw new IllegalStateException("This node has no JWT signing key (verification only)");
+        }
+        return signingKey;
+    }
+
+    // kid가 없는 토큰(이전 버전이 발급)은 현재 서명 key로 검증
+    Key verificationKey(String kid) {
+        return verificationKeys.get(kid != null ? kid : signingKeyId);
+    }
+
+    private void loadKeystore(Path path, char[] password, Map<String, Key> verification, Map<String, Key> signing) {
+        try (InputStream in = Files.newInputStream(path)) {
+            KeyStore store = KeyStore.getInstance("PKCS12");
+            store.load(in, password);
+            for (String alias : Collections.list(store.aliases())) {
+                if (store.isKeyEntry(alias)) {
+                    Key key = store.getKey(alias, password);
+                    if (key instanceof PrivateKey privateKey) {
+                        Certificate certificate = store.getCertificate(alias);
+                        verification.put(alias, certificate.getPublicKey());
+                        signing.put(alias, privateKey);
+                    } else {
+                        verification.put(alias, key);
+                        signing.put(alias, key);
+                    }
+                } else {
+                    verification.put(alias, store.getCertificate(alias).getPublicKey());
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot load JWT keystore " + path, e);
+        }
+    }
+
+    private static Key decode(byte[] bytes, boolean privateKey) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            return privateKey ? factory.generatePrivate(new PKCS8EncodedKeySpec(bytes))
+                    : factory.generatePublic(new X509EncodedKeySpec(bytes));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid EC " + (privateKey ? "private" : "public") + " key", e);
+        }
+    }
+}
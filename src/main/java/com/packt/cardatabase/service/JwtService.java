@@ -1,14 +1,29 @@
 package com.packt.cardatabase.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtService {
@@ -17,17 +32,59 @@ public class JwtService {
     // 토큰의 접두사 정의: 일반적으로 Bearer 스키미가 이용됨
     static final String PREFIX = "Bearer";
 
-    // 비밀키 생성, 시연 목적으로만 이용
-    // 운영 환경에서는 애플리케이션 구성에서 읽어들어와야 함
-    static final Key key = Keys.secretKeyFor (SignatureAlgorithm.HS256);
+    // 서명/검증 key: 설정(cardatabase.jwt.*)에서 읽음 ==> 모든 node가 같은 key 사용 (JwtKeys 참고)
+    private final JwtKeys keys;
+
+    // JwtParser는 immutable하고 thread-safe ==> 요청마다 만들지 않고 재사용
+    // 토큰 header의 kid로 검증 key를 선택 (key rotation 중에는 여러 key가 유효)
+    private final JwtParser parser;
+
+    /* 검증된 토큰 캐시
+     -- key: 토큰의 SHA-256 digest (토큰 원문은 메모리에 보관하지 않음), value: 사용자 이름과 만료 시각
+     -- 같은 토큰이 다시 오면 서명 검증과 claim 파싱을 건너뜀
+     -- 각 항목은 토큰의 exp claim 시각에 만료 ==> 만료된 토큰은 다시 검증(그리고 거부)됨
+    */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Timer verificationTimer;
+    private final Timer signingTimer;
+
+    public JwtService(MeterRegistry meterRegistry, JwtKeys keys,
+                      @Value("${cardatabase.jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.keys = keys;
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+            @Override
+            public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                Key key = keys.verificationKey(header.getKeyId());
+                if (key == null) {
+                    throw new UnsupportedJwtException("Unknown JWT key id " + header.getKeyId());
+                }
+                return key;
+            }
+        }).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+        // jwt.verified.tokens 캐시의 hit/miss 비율: /actuator/metrics/cache.gets
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified.tokens");
+        this.verificationTimer = Timer.builder("jwt.verification")
+                .description("Signature verification and claim parsing of JWTs not found in the verified-token cache")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.signingTimer = Timer.builder("jwt.signing")
+                .description("Creation and signing of JWTs at login")
+                .register(meterRegistry);
+    }
 
     // 서명된 JWT 트콘 생성
     public String getToken(String username) {
-        String token = Jwts.builder()
+        String token = signingTimer.record(() -> Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keys.signingKeyId())
                 .setSubject(username)
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATIONTIME))
-                .signWith(key)
-                .compact();
+                .signWith(keys.signingKey(), keys.algorithm())
+                .compact());
         return token;
     }
 
@@ -36,14 +93,26 @@ public class JwtService {
     public String getAuthUser(HttpServletRequest request) {
         String token = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (token != null) {
-            String user = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token.replace(PREFIX, ""))
-                    .getBody()
-                    .getSubject();
+            String jws = token.replace(PREFIX, "").trim();
+            String digest = digest(jws);
+            VerifiedToken verified = verifiedTokens.getIfPresent(digest);
+            if (verified != null && verified.expiresAt() > System.currentTimeMillis()) {
+                return verified.subject();
+            }
+
+            long start = System.nanoTime();
+            Claims claims;
+            try {
+                claims = parser.parseClaimsJws(jws).getBody();
+            } finally {
+                verificationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            String user = claims.getSubject();
 
             if (user != null) {
+                if (claims.getExpiration() != null) {
+                    verifiedTokens.put(digest, new VerifiedToken(user, claims.getExpiration().getTime()));
+                }
                 return user;
             }
 
@@ -51,4 +120,36 @@ public class JwtService {
         }
         return null;
     }
+
+    private static String digest(String jws) {
+        try {
+            // MessageDigest는 thread-safe하지 않으므로 호출할 때마다 생성
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(jws.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // 모든 JVM은 SHA-256을 지원해야 함
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedToken(String subject, long expiresAt) {
+    }
+
+    // 캐시 항목의 수명 = 토큰의 남은 유효 시간
+    private static final class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
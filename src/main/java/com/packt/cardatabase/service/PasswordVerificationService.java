@@ -0,0 +1,65 @@
+package com.packt.cardatabase.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 로그인(bcrypt 비밀번호 검증) 전용 thread pool
+ -- bcrypt는 의도적으로 느린 hash (수십 ms의 CPU 사용) ==> Tomcat worker thread에서 실행하면 로그인이 몰릴 때
+    /api/cars 같은 일반 요청을 처리할 thread가 부족해짐
+ -- 크기가 고정된 pool + 크기가 제한된 queue에서 실행하고, queue가 가득 차면 바로 RejectedExecutionException
+    queue-capacity=0이면 SynchronousQueue ==> 대기 없이 모든 thread가 사용 중이면 바로 거절
+    ==> LoginController가 429 Too Many Requests로 응답
+ -- ExecutorService는 스프링 bean으로 등록하지 않음 (Executor bean이 있으면 스프링 부트의 기본 applicationTaskExecutor가 생성되지 않음)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@Service
+public class PasswordVerificationService {
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordVerificationService(AuthenticationManager authenticationManager, MeterRegistry meterRegistry,
+                                       @Value("${cardatabase.login.pool-size:4}") int poolSize,
+                                       @Value("${cardatabase.login.queue-capacity:64}") int queueCapacity) {
+        if (poolSize < 1 || queueCapacity < 0) {
+            throw new IllegalStateException("cardatabase.login.pool-size must be >= 1 and queue-capacity >= 0");
+        }
+        this.authenticationManager = authenticationManager;
+        // ArrayBlockingQueue는 용량 0을 허용하지 않음
+        BlockingQueue<Runnable> queue = queueCapacity == 0
+                ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueCapacity);
+        // AbortPolicy(기본값): queue가 가득 차면 execute()에서 RejectedExecutionException
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queue, new CustomizableThreadFactory("bcrypt-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // pool 사용량, queue 길이: /actuator/metrics/executor.*
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "login.password.verification");
+    }
+
+    // pool이 포화 상태이면 RejectedExecutionException을 바로 던짐
+    public CompletableFuture<Authentication> authenticate(UsernamePasswordAuthenticationToken credentials)
+            throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(credentials), executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
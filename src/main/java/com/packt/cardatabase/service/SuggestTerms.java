@@ -0,0 +1,211 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ 자동완성용 용어(term) 인덱스: brand, model, registrationNumber (CarSuggestIndex가 사용, thread-safe 아님)
+ -- 자동차 한 대가 아니라 서로 다른 값(term) 단위로 저장: 브랜드/모델은 수백개, 등록번호는 자동차 수만큼
+ -- prefix 검색: 항목별 TreeMap(소문자 값 ==> term)의 subMap ==> O(log n) + 결과 수
+ -- 부분 문자열 검색: trigram(연속된 3글자) ==> term id 목록 (posting list)
+    검색어의 trigram 중 term이 가장 적은 목록만 확인 (contains로 검증) ==> 테이블 전체를 보지 않음
+ -- 삭제된 term(count 0)은 TreeMap에서 빼고 posting list에는 남겨둠 (검색할 때 건너뜀)
+    같은 값이 다시 추가되면 그 term을 다시 사용 ==> 수정이 반복돼도 term 목록과 posting list가 늘어나지 않음
+ -- MariaDB 기본 collation처럼 대소문자를 구분하지 않음
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+class SuggestTerms {
+    // 항목별로 검사할 최대 후보 수 ==> 결과가 아주 많은 짧은 검색어도 시간이 일정
+    static final int MAX_CANDIDATES = 1000;
+
+    private static final class Term {
+        private final int id;
+        private final CarSuggestion.Field field;
+        private final String key;
+        private String value;
+        private long count;
+        private Long carId;
+
+        private Term(int id, CarSuggestion.Field field, String key, String value) {
+            this.id = id;
+            this.field = field;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final Map<CarSuggestion.Field, NavigableMap<String, Term>> byField =
+            new EnumMap<>(CarSuggestion.Field.class);
+    // 삭제된 term도 포함한 전체 (소문자 값 ==> term), 다시 추가될 때 재사용
+    private final Map<CarSuggestion.Field, Map<String, Term>> allByField = new EnumMap<>(CarSuggestion.Field.class);
+    private final List<Term> terms = new ArrayList<>();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+
+    SuggestTerms() {
+        for (CarSuggestion.Field field : CarSuggestion.Field.values()) {
+            byField.put(field, new TreeMap<>());
+            allByField.put(field, new HashMap<>());
+        }
+    }
+
+    void add(CarSnapshot car) {
+        add(CarSuggestion.Field.BRAND, car.brand(), null);
+        add(CarSuggestion.Field.MODEL, car.model(), null);
+        add(CarSuggestion.Field.REGISTRATION_NUMBER, car.registrationNumber(), car.id());
+    }
+
+    void remove(CarSnapshot car) {
+        remove(CarSuggestion.Field.BRAND, car.brand());
+        remove(CarSuggestion.Field.MODEL, car.model());
+        remove(CarSuggestion.Field.REGISTRATION_NUMBER, car.registrationNumber());
+    }
+
+    int size() {
+        return byField.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // 삭제된 term을 포함한 전체 term 수와 posting 수 (테스트용)
+    int allocatedTerms() {
+        return terms.size();
+    }
+
+    int postings() {
+        return trigrams.values().stream().mapToInt(postings -> postings.size).sum();
+    }
+
+    /* 순위: prefix 일치 > 부분 일치, 그 다음 항목(브랜드 > 모델 > 등록번호), 자동차 수, 값의 알파벳 순서 */
+    List<CarSuggestion> search(String query, int limit) {
+        String needle = normalize(query);
+        if (needle == null || limit <= 0) {
+            return List.of();
+        }
+        Map<Term, Boolean> candidates = new LinkedHashMap<>();
+        for (NavigableMap<String, Term> tree : byField.values()) {
+            int scanned = 0;
+            for (Term term : tree.subMap(needle, true, needle + Character.MAX_VALUE, true).values()) {
+                candidates.put(term, Boolean.TRUE);
+                if (++scanned >= MAX_CANDIDATES) {
+                    break;
+                }
+            }
+        }
+        if (needle.length() >= 3) {
+            Postings rarest = null;
+            for (String trigram : trigramsOf(needle)) {
+                Postings postings = trigrams.get(trigram);
+                if (postings == null) {
+                    rarest = null;
+                    break;
+                }
+                if (rarest == null || postings.size < rarest.size) {
+                    rarest = postings;
+                }
+            }
+            int found = 0;
+            for (int i = 0; rarest != null && i < rarest.size && found < MAX_CANDIDATES; i++) {
+                Term term = terms.get(rarest.ids[i]);
+                if (term.count > 0 && !candidates.containsKey(term) && term.key.contains(needle)) {
+                    candidates.put(term, Boolean.FALSE);
+                    found++;
+                }
+            }
+        }
+
+        Comparator<Map.Entry<Term, Boolean>> ranking = Comparator
+                .comparing((Map.Entry<Term, Boolean> entry) -> !entry.getValue())
+                .thenComparing(entry -> entry.getKey().field)
+                .thenComparing(entry -> -entry.getKey().count)
+                .thenComparing(entry -> entry.getKey().key);
+        return candidates.entrySet().stream()
+                .sorted(ranking)
+                .limit(limit)
+                .map(entry -> {
+                    Term term = entry.getKey();
+                    return new CarSuggestion(term.field, term.value, term.count, term.carId);
+                })
+                .toList();
+    }
+
+    private void add(CarSuggestion.Field field, String value, Long carId) {
+        String key = normalize(value);
+        if (key == null) {
+            return;
+        }
+        Term term = allByField.get(field).get(key);
+        if (term == null) {
+            term = new Term(terms.size(), field, key, value.trim());
+            terms.add(term);
+            allByField.get(field).put(key, term);
+            for (String trigram : trigramsOf(key)) {
+                trigrams.computeIfAbsent(trigram, t -> new Postings()).add(term.id);
+            }
+        }
+        if (term.count == 0) {
+            // 새 term 또는 삭제됐던 term: 검색 대상(TreeMap)에 다시 추가, 표시 값은 최근 값
+            term.value = value.trim();
+            byField.get(field).put(key, term);
+        }
+        if (carId != null) {
+            // 등록번호는 자동차마다 하나 ==> 같은 자동차를 다시 추가해도 1
+            term.carId = carId;
+            term.count = 1;
+        } else {
+            term.count++;
+        }
+    }
+
+    private void remove(CarSuggestion.Field field, String value) {
+        String key = normalize(value);
+        if (key == null) {
+            return;
+        }
+        Term term = byField.get(field).get(key);
+        if (term != null && --term.count <= 0) {
+            term.count = 0;
+            byField.get(field).remove(key);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> trigramsOf(String key) {
+        List<String> result = new ArrayList<>(Math.max(0, key.length() - 2));
+        for (int i = 0; i + 3 <= key.length(); i++) {
+            String trigram = key.substring(i, i + 3);
+            if (!result.contains(trigram)) {
+                result.add(trigram);
+            }
+        }
+        return result;
+    }
+
+    // 크기가 늘어나는 int 배열 (Integer boxing 없이 term id 저장)
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -1,38 +1,55 @@
 package com.packt.cardatabase.service;
 
-import com.packt.cardatabase.domain.AppUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.packt.cardatabase.domain.AppUserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.time.Duration;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final AppUserRepository repository;
 
-    public UserDetailsServiceImpl(AppUserRepository repository) {
+    /* findByUsername 결과의 짧은 캐시
+     -- 로그인이 몰릴 때 같은 사용자에 대한 SELECT를 줄임
+     -- UserDetails 객체 자체는 캐시하지 않음: 인증 후 스프링 시큐리티가 eraseCredentials()로 비밀번호를 지우기 때문
+     -- 존재하지 않는 사용자는 캐시하지 않음
+    */
+    private final Cache<String, StoredCredentials> users;
+
+    public UserDetailsServiceImpl(AppUserRepository repository,
+                                  @Value("${cardatabase.login.user-cache-ttl:30s}") Duration userCacheTtl) {
         this.repository = repository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(userCacheTtl)
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<AppUser> user = repository.findByUsername(username);
+        StoredCredentials user = users.get(username, name -> repository.findByUsername(name)
+                .map(appUser -> new StoredCredentials(appUser.getPassword(), appUser.getRole()))
+                .orElse(null));
 
         User.UserBuilder builder = null;
-        if(user.isPresent()) {
-            AppUser currentUser = user.get();
+        if(user != null) {
             builder = org.springframework.security.core.userdetails.User.withUsername(username);
-            builder.password(currentUser.getPassword());
-            builder.roles(currentUser.getRole());
+            builder.password(user.password());
+            builder.roles(user.role());
         } else {
             throw new UsernameNotFoundException("User not found.");
         }
 
         return builder.build();
     }
-}
 
+    private record StoredCredentials(String password, String role) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.packt.cardatabase.web;
+
+import com.packt.cardatabase.service.InventoryChangeFeed;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ /api/cars/changes: 자동차/소유자 변경 feed (text/event-stream)
+ -- 대시보드는 처음에 목록을 한번 읽고, 이후에는 이 stream으로 변경분(delta)만 받아서 반영 ==> 주기적인 전체 조회가 필요 없음
+ -- event name: car | owner | reset, data: InventoryChange (JSON), event id: "epoch-sequence" (InventoryChangeFeed 참고)
+ -- 브라우저 EventSource는 재연결할 때 Last-Event-ID 헤더를 자동으로 보냄
+    헤더를 설정할 수 없는 client는 ?lastEventId= 로 전달
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@RepositoryRestController
+public class CarChangesController {
+    private final InventoryChangeFeed feed;
+
+    public CarChangesController(InventoryChangeFeed feed) {
+        this.feed = feed;
+    }
+
+    @GetMapping(value = "/cars/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                              @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        return feed.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+    }
+}
@@ -1,24 +1,85 @@
 package com.packt.cardatabase.web;
 
 import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.service.CarRepresentationCache;
+import com.packt.cardatabase.service.CarStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.packt.cardatabase.domain.Car;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class CarController {
+    // NDJSON: 한 줄에 JSON 객체 하나 (application/x-ndjson)
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    // Smile: Jackson의 바이너리 JSON 형식 (JacksonConfig 참고)
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 
     private final CarRepository repository;
+    private final CarStreamService streamService;
+    private final CarRepresentationCache representationCache;
 
-    public CarController(CarRepository repository) {
+    public CarController(CarRepository repository, CarStreamService streamService,
+                         CarRepresentationCache representationCache) {
         this.repository = repository;
+        this.streamService = streamService;
+        this.representationCache = representationCache;
     }
 
     // endpoint 정의: /cars
     // /cars endpoint로 Get http request가 들어오면 getCars() 메서드가 실행
+    // owner=true (기본값): 소유자를 join fetch로 함께 가져옴 => 쿼리 1번
+    // owner=false: 소유자는 로딩하지 않고 {"id": ..} 만 출력 => 쿼리 1번
+    // view=summary: 목록 화면용 칼럼만 SELECT (CarSummary), entity를 만들지 않음
     @GetMapping("/cars") // PostMapping, DeleteMapping etc..
-    public Iterable<Car> getCars() {
+    public Iterable<?> getCars(@RequestParam(defaultValue = "true") boolean owner,
+                               @RequestParam(defaultValue = "full") String view) {
+        if ("summary".equals(view)) {
+            return repository.findSummariesBy();
+        }
         // 자동차 검색 및 반환
-        return repository.findAll();
+        return owner ? repository.findAllWithOwnerBy() : repository.findAll();
+    }
+
+    /* /cars/{id}: 자동차 한 대, Accept 헤더에 따라 JSON/CBOR/Smile
+     -- 미리 직렬화된 bytes를 version별로 캐시 (CarRepresentationCache) ==> 수정되지 않은 자동차는 직렬화하지 않음
+     -- ETag: "version", "version-cbor", "version-smile" (형식마다 다름) ==> If-None-Match가 같으면 ConditionalGetFilter가 304로 응답
+     -- Vary: Accept (ConditionalGetFilter) ==> 공유 캐시가 다른 형식의 응답을 주지 않음
+    */
+    @GetMapping(value = "/cars/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getCarJson(@PathVariable long id) {
+        return representation(id, CarRepresentationCache.Format.JSON, MediaType.APPLICATION_JSON);
+    }
+
+    @GetMapping(value = "/cars/{id}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<byte[]> getCarCbor(@PathVariable long id) {
+        return representation(id, CarRepresentationCache.Format.CBOR, MediaType.APPLICATION_CBOR);
+    }
+
+    @GetMapping(value = "/cars/{id}", produces = APPLICATION_SMILE_VALUE)
+    public ResponseEntity<byte[]> getCarSmile(@PathVariable long id) {
+        return representation(id, CarRepresentationCache.Format.SMILE, MediaType.parseMediaType(APPLICATION_SMILE_VALUE));
+    }
+
+    private ResponseEntity<byte[]> representation(long id, CarRepresentationCache.Format format, MediaType mediaType) {
+        return representationCache.get(id, format)
+                .map(representation -> ResponseEntity.ok()
+                        .contentType(mediaType)
+                        .eTag(format.etag(representation.version()))
+                        .body(representation.bytes()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // /cars/stream: 전체 자동차를 메모리에 올리지 않고 NDJSON으로 스트리밍
+    @GetMapping(value = "/cars/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCars() {
+        StreamingResponseBody body = streamService::writeNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
     }
 }
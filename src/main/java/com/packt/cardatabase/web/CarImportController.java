@@ -0,0 +1,31 @@
+package com.packt.cardatabase.web;
+
+import com.packt.cardatabase.service.CarImportResult;
+import com.packt.cardatabase.service.CarImportService;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// 자동차 대량 등록: /api/cars/bulk (CarImportService 참고)
+@RepositoryRestController
+public class CarImportController {
+    private final CarImportService importService;
+
+    public CarImportController(CarImportService importService) {
+        this.importService = importService;
+    }
+
+    // InputStream 매개변수: 요청 body를 읽지 않은 상태로 받아서 그대로 스트리밍
+    @PostMapping(value = "/cars/bulk", consumes = "text/csv")
+    public ResponseEntity<CarImportResult> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importCsv(body));
+    }
+
+    @PostMapping(value = "/cars/bulk", consumes = CarController.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<CarImportResult> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importNdjson(body));
+    }
+}
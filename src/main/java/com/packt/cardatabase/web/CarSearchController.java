@@ -0,0 +1,200 @@
+package com.packt.cardatabase.web;
+
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.CarFilter;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSpecifications;
+import com.packt.cardatabase.service.CarInventoryIndex;
+import com.packt.cardatabase.service.CarSuggestIndex;
+import com.packt.cardatabase.service.CarSuggestion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.rest.webmvc.PersistentEntityResourceAssembler;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.EmbeddedWrappers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ @RepositoryRestController
+ -- Spring Data REST가 만든 /api/cars 엔드포인트 옆에 직접 만든 handler를 추가할 때 사용
+ -- 매핑 경로 앞에 spring.data.rest.base-path(/api)가 자동으로 붙음 ==> /cars/search/filter 는 /api/cars/search/filter
+ -- 같은 경로(/cars, /cars/search/findByBrand)에 매핑하면 Spring Data REST의 기본 handler 대신 실행됨
+    (@RestController를 쓰면 Spring Data REST의 다른 엔드포인트까지 가려버리므로 사용하지 않음)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@RepositoryRestController
+public class CarSearchController {
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_SUGGESTIONS = 50;
+    // 빈 결과도 _embedded.cars: [] 로 출력
+    private static final EmbeddedWrappers EMBEDDED_WRAPPERS = new EmbeddedWrappers(false);
+
+    private final CarRepository repository;
+    private final CarInventoryIndex index;
+    private final CarSuggestIndex suggestIndex;
+
+    public CarSearchController(CarRepository repository, CarInventoryIndex index, CarSuggestIndex suggestIndex) {
+        this.repository = repository;
+        this.index = index;
+        this.suggestIndex = suggestIndex;
+    }
+
+    /* /api/cars: Spring Data REST의 기본 컬렉션(offset 페이징 + count 쿼리)을 keyset pagination으로 대체
+     -- ?sort=modelYear&size=50 (sort: id, modelYear, price), 응답은 HAL(_embedded.cars, CarSummary excerpt)
+     -- 다음 페이지는 _links.next (cursor 매개변수) ==> N번째 페이지도 첫 페이지와 비용이 같음
+     -- page 매개변수가 있으면 이 handler와 매칭되지 않음(params = "!page")
+        ==> Spring Data REST의 offset 페이징으로 처리 (기존 client 호환, 뒤 페이지일수록 느림)
+    */
+    @GetMapping(value = "/cars", params = "!page")
+    public ResponseEntity<CollectionModel<Object>> cars(@RequestParam(defaultValue = "id") String sort,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int size,
+                                                        PersistentEntityResourceAssembler assembler) {
+        Sort order = KeysetCursor.sort(sort);
+        return ResponseEntity.ok(toModel(KeysetPage.of(
+                repository.findAllBy(KeysetCursor.decode(cursor, order), order, limit(size))), assembler));
+    }
+
+    /* Spring Data REST가 노출하는 finder(/api/cars/search/findBy*)를 같은 경로의 keyset pagination 버전으로 대체
+     -- 경로가 구체적인 handler가 Spring Data REST의 /{repository}/search/{search} 보다 우선
+     -- 메모리 인덱스(CarInventoryIndex)가 준비되어 있으면 인덱스로, 아니면 DB 쿼리로 검색 (search 참고)
+     -- id 순서로 size개씩, 다음 페이지는 _links.next
+     -- findByBrandOrColor, findByBrandOrderByModelYearAsc는 Spring Data REST가 그대로 처리 (페이징 없음, DB)
+    */
+    @GetMapping("/cars/search/findByBrand")
+    public ResponseEntity<CollectionModel<Object>> findByBrand(@RequestParam String brand,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size,
+                                                               PersistentEntityResourceAssembler assembler) {
+        return ResponseEntity.ok(toModel(search(new CarFilter(brand, null, null, null, null, null, null),
+                "id", cursor, size), assembler));
+    }
+
+    @GetMapping("/cars/search/findByColor")
+    public ResponseEntity<CollectionModel<Object>> findByColor(@RequestParam String color,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "50") int size,
+                                                               PersistentEntityResourceAssembler assembler) {
+        return ResponseEntity.ok(toModel(search(new CarFilter(null, null, color, null, null, null, null),
+                "id", cursor, size), assembler));
+    }
+
+    @GetMapping("/cars/search/findByModelYear")
+    public ResponseEntity<CollectionModel<Object>> findByModelYear(@RequestParam int modelYear,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "50") int size,
+                                                                   PersistentEntityResourceAssembler assembler) {
+        return ResponseEntity.ok(toModel(search(new CarFilter(null, null, null, modelYear, modelYear, null, null),
+                "id", cursor, size), assembler));
+    }
+
+    @GetMapping("/cars/search/findByBrandAndModel")
+    public ResponseEntity<CollectionModel<Object>> findByBrandAndModel(@RequestParam String brand,
+                                                                       @RequestParam String model,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "50") int size,
+                                                                       PersistentEntityResourceAssembler assembler) {
+        return ResponseEntity.ok(toModel(search(new CarFilter(brand, model, null, null, null, null, null),
+                "id", cursor, size), assembler));
+    }
+
+    /* 복합 검색: /api/cars/search/filter?brand=Ford&minYear=2018&maxPrice=40000&sort=price
+     -- brand, model, color, minYear, maxYear, minPrice, maxPrice 를 원하는 대로 조합 (CarFilter로 바인딩)
+     -- 모든 조건이 하나의 쿼리로 실행되고 결과는 keyset pagination으로 반환
+    */
+    @GetMapping("/cars/search/filter")
+    public ResponseEntity<CollectionModel<Object>> filter(CarFilter filter,
+                                                          @RequestParam(defaultValue = "id") String sort,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int size,
+                                                          PersistentEntityResourceAssembler assembler) {
+        return ResponseEntity.ok(toModel(search(filter, sort, cursor, size), assembler));
+    }
+
+    /* 자동완성: /api/cars/search/suggest?q=cor&limit=10
+     -- brand, model, registrationNumber에서 검색어로 시작하거나(prefix) 검색어를 포함하는(3글자 이상) 값
+     -- 메모리 인덱스(CarSuggestIndex)만 사용, 초기화 중이면 503 + Retry-After
+    */
+    @GetMapping("/cars/search/suggest")
+    public ResponseEntity<List<CarSuggestion>> suggest(@RequestParam String q,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return suggestIndex.suggest(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1").build());
+    }
+
+    /* id 정렬이면 메모리 인덱스로, 인덱스를 쓸 수 없으면(다른 정렬, 비활성화, 초기화 중) DB 쿼리(CarSpecifications)로
+     -- 두 경로 모두 문자열 조건은 대소문자를 구분하지 않음 ==> 인덱스 상태와 관계없이 같은 결과
+    */
+    private KeysetPage<Car> search(CarFilter filter, String sort, String cursor, int size) {
+        Sort order = KeysetCursor.sort(sort);
+        Limit limit = limit(size);
+        if ("id".equals(sort)) {
+            Optional<KeysetPage<Car>> page = fromIndex(filter, cursor, limit);
+            if (page.isPresent()) {
+                return page.get();
+            }
+        }
+        return KeysetPage.of(repository.findBy(CarSpecifications.matching(filter),
+                query -> query.sortBy(order).limit(limit.max()).scroll(KeysetCursor.decode(cursor, order))));
+    }
+
+    /* 메모리 인덱스(CarInventoryIndex)로 검색 (id 정렬만 지원)
+     -- 인덱스에서 조건에 맞는 id 목록을 구하고, 현재 페이지의 id들만 primary key로 DB에서 가져옴
+     -- 인덱스가 꺼져 있거나 아직 초기화 중이면 empty ==> 호출하는 쪽에서 DB 쿼리로 fallback
+    */
+    private Optional<KeysetPage<Car>> fromIndex(CarFilter filter, String cursor, Limit limit) {
+        return index.matchingIds(filter).map(ids -> {
+            long afterId = KeysetCursor.afterId(KeysetCursor.decode(cursor, KeysetCursor.sort("id")));
+            int from = Arrays.binarySearch(ids, afterId);
+            from = from >= 0 ? from + 1 : -from - 1;
+            int to = Math.min(ids.length, from + limit.max());
+
+            List<Long> pageIds = Arrays.stream(ids, from, to).boxed().toList();
+            Map<Long, Car> cars = new HashMap<>();
+            repository.findAllById(pageIds).forEach(car -> cars.put(car.getId(), car));
+            // 인덱스 조회와 DB 조회 사이에 삭제된 Car는 제외
+            List<Car> content = pageIds.stream().map(cars::get).filter(Objects::nonNull).toList();
+            String next = to < ids.length ? KeysetCursor.encode(Map.of("id", ids[to - 1])) : null;
+            return new KeysetPage<>(content, next);
+        });
+    }
+
+    /* HAL 컬렉션 응답: Spring Data REST의 컬렉션과 같은 형태(_embedded.cars, excerpt projection)
+     -- _links.self, 다음 페이지가 있으면 _links.next (현재 요청 URI의 cursor 매개변수만 바꿈)
+    */
+    private static CollectionModel<Object> toModel(KeysetPage<Car> page, PersistentEntityResourceAssembler assembler) {
+        List<Object> content = page.content().isEmpty()
+                ? List.of(EMBEDDED_WRAPPERS.emptyCollectionOf(Car.class))
+                : new ArrayList<>(page.content().stream().map(assembler::toModel).toList());
+        CollectionModel<Object> model = CollectionModel.of(content);
+        model.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest().build().toUriString()).withSelfRel());
+        if (page.next() != null) {
+            model.add(Link.of(ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.next()).build().toUriString(), IanaLinkRelations.NEXT));
+        }
+        return model;
+    }
+
+    static Limit limit(int size) {
+        return Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+}
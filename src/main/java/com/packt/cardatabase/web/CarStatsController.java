@@ -0,0 +1,23 @@
+package com.packt.cardatabase.web;
+
+import com.packt.cardatabase.service.CarStatistics;
+import com.packt.cardatabase.service.InventoryStats;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+// /api/cars/stats: 브랜드, 색상, 연식별 자동차 수와 평균 가격 (메모리의 집계값, CarStatistics 참고)
+@RepositoryRestController
+public class CarStatsController {
+    private final CarStatistics statistics;
+
+    public CarStatsController(CarStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @GetMapping("/cars/stats")
+    public ResponseEntity<InventoryStats> stats() {
+        // cardatabase.stats.enabled=false ==> 404
+        return ResponseEntity.of(statistics.stats());
+    }
+}
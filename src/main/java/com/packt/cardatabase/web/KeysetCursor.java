@@ -0,0 +1,91 @@
+package com.packt.cardatabase.web;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ keyset pagination의 continuation token(cursor) 변환
+ -- 마지막 row의 정렬 key 값들(예: modelYear=2020&id=17)을 Base64 URL-safe 문자열로 변환 ==> client에게는 불투명한(opaque) 값
+ -- client는 응답의 next 값을 다음 요청의 cursor 매개변수로 그대로 보내면 됨
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+final class KeysetCursor {
+    // 정렬 가능한 key: Car의 (정렬 칼럼, id) 인덱스가 있는 field만 허용
+    static final Set<String> SORT_KEYS = Set.of("id", "modelYear", "price");
+
+    private KeysetCursor() {
+    }
+
+    static Sort sort(String key) {
+        if (!SORT_KEYS.contains(key)) {
+            throw badRequest("Unsupported sort key: " + key);
+        }
+        // id를 마지막 정렬 key로 추가해서 정렬 순서를 unique하게 만듬
+        return "id".equals(key) ? Sort.by("id") : Sort.by(key, "id");
+    }
+
+    static ScrollPosition decode(String cursor, Sort sort) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String key = pair.substring(0, eq);
+                String value = pair.substring(eq + 1);
+                // id는 Long, 나머지 정렬 key(modelYear, price)는 int
+                keys.put(key, "id".equals(key) ? (Object) Long.valueOf(value) : Integer.valueOf(value));
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw badRequest("Malformed cursor");
+        }
+        // 다른 정렬 key로 만들어진 cursor는 사용 불가
+        Set<String> expected = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (!keys.keySet().equals(expected)) {
+            throw badRequest("Cursor does not match sort " + expected);
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    // id로 정렬된 cursor에서 마지막으로 읽은 id (첫 페이지면 Long.MIN_VALUE)
+    static long afterId(ScrollPosition position) {
+        if (position.isInitial()) {
+            return Long.MIN_VALUE;
+        }
+        return (Long) ((KeysetScrollPosition) position).getKeys().get("id");
+    }
+
+    // 다음 페이지가 없으면 null
+    static String encode(Window<?> window) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+        KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        return encode(position.getKeys());
+    }
+
+    static String encode(Map<String, ?> keys) {
+        String raw = keys.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("&"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
@@ -0,0 +1,13 @@
+package com.packt.cardatabase.web;
+
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+// keyset pagination 응답: 현재 페이지의 내용과 다음 페이지를 요청할 때 쓸 cursor (마지막 페이지면 null)
+public record KeysetPage<T>(List<T> content, String next) {
+
+    static <T> KeysetPage<T> of(Window<T> window) {
+        return new KeysetPage<>(window.getContent(), KeysetCursor.encode(window));
+    }
+}
@@ -2,39 +2,54 @@ package com.packt.cardatabase.web;
 
 import com.packt.cardatabase.domain.AccountCredentials;
 import com.packt.cardatabase.service.JwtService;
+import com.packt.cardatabase.service.PasswordVerificationService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 public class LoginController {
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordVerificationService verificationService;
+    private final long retryAfterSeconds;
 
-    public LoginController(JwtService jwtService, AuthenticationManager authenticationManager) {
+    public LoginController(JwtService jwtService, PasswordVerificationService verificationService,
+                           @Value("${cardatabase.login.retry-after-seconds:1}") long retryAfterSeconds) {
         this.jwtService = jwtService;
-        this.authenticationManager = authenticationManager;
+        this.verificationService = verificationService;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
+    // CompletableFuture를 반환하면 Spring MVC의 비동기 처리 ==> 비밀번호 검증 동안 Tomcat thread를 반납
     @PostMapping("/login")
-    public ResponseEntity<?> getToken(@RequestBody AccountCredentials credentials) {
+    public CompletableFuture<ResponseEntity<?>> getToken(@RequestBody AccountCredentials credentials) {
         // 토큰을 생성하고 응답의 Authorization 헤더로 전송
         UsernamePasswordAuthenticationToken creds = new
                 UsernamePasswordAuthenticationToken(credentials.username(),  credentials.password());
-        Authentication auth = authenticationManager.authenticate(creds);
-
-        // 토큰을 생성
-        String jwts = jwtService.getToken(auth.getName());
-
-        // 생성된 토큰으로 응답을 빌드
-        return ResponseEntity.ok().header(HttpHeaders.AUTHORIZATION,
-                "Bearer " + jwts).header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
-                "Authorization").build();
+        try {
+            // 인증 실패(AuthenticationException)는 그대로 전달되어 AuthEntryPoint가 401로 응답
+            return verificationService.authenticate(creds).thenApply(auth -> {
+                // 토큰을 생성
+                String jwts = jwtService.getToken(auth.getName());
+
+                // 생성된 토큰으로 응답을 빌드
+                return ResponseEntity.ok().header(HttpHeaders.AUTHORIZATION,
+                        "Bearer " + jwts).header(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                        "Authorization").build();
+            });
+        } catch (RejectedExecutionException e) {
+            // 검증 pool이 포화 상태: 기다리지 않고 바로 429 + Retry-After
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds)).build());
+        }
     }
 
 
@@ -0,0 +1,24 @@
+package com.packt.cardatabase.web;
+
+import com.packt.cardatabase.domain.OwnerRepository;
+import com.packt.cardatabase.domain.OwnerSummary;
+import org.springframework.data.rest.webmvc.RepositoryRestController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import java.util.List;
+
+// /api/owners/summary: 소유자 목록 + 각 소유자의 자동차 수 (OwnerSummary 참고)
+@RepositoryRestController
+public class OwnerSummaryController {
+    private final OwnerRepository repository;
+
+    public OwnerSummaryController(OwnerRepository repository) {
+        this.repository = repository;
+    }
+
+    @GetMapping("/owners/summary")
+    public ResponseEntity<List<OwnerSummary>> summaries() {
+        return ResponseEntity.ok(repository.findSummaries());
+    }
+}
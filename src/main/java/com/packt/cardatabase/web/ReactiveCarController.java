@@ -0,0 +1,64 @@
+package com.packt.cardatabase.web;
+
+import com.packt.cardatabase.domain.CarRow;
+import com.packt.cardatabase.domain.ReactiveCarRepository;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+/*
+ ---------------------------------------------------------------------------------------------------------------------
+ /reactive/cars: R2DBC 기반의 읽기 전용 자동차 API
+ -- Spring MVC도 Flux 반환을 지원: application/x-ndjson, text/event-stream 으로 요청하면 한 건씩 스트리밍
+    (client가 느리면 다음 row를 요청하지 않음 ==> backpressure), application/json 이면 배열로 모아서 응답
+ -- 같은 SecurityFilterChain을 거치므로 /api/cars와 보안 규칙이 같음 (JWT 필요)
+ ---------------------------------------------------------------------------------------------------------------------
+*/
+@RestController
+@RequestMapping(value = "/reactive/cars", produces = {CarController.APPLICATION_NDJSON_VALUE,
+        MediaType.TEXT_EVENT_STREAM_VALUE, MediaType.APPLICATION_JSON_VALUE})
+public class ReactiveCarController {
+    private final ReactiveCarRepository repository;
+
+    public ReactiveCarController(ReactiveCarRepository repository) {
+        this.repository = repository;
+    }
+
+    @GetMapping
+    public Flux<CarRow> getCars() {
+        return repository.findAll();
+    }
+
+    @GetMapping("/search/findByBrand")
+    public Flux<CarRow> findByBrand(@RequestParam String brand) {
+        return repository.findByBrand(brand);
+    }
+
+    @GetMapping("/search/findByColor")
+    public Flux<CarRow> findByColor(@RequestParam String color) {
+        return repository.findByColor(color);
+    }
+
+    @GetMapping("/search/findByModelYear")
+    public Flux<CarRow> findByModelYear(@RequestParam int modelYear) {
+        return repository.findByModelYear(modelYear);
+    }
+
+    @GetMapping("/search/findByBrandAndModel")
+    public Flux<CarRow> findByBrandAndModel(@RequestParam String brand, @RequestParam String model) {
+        return repository.findByBrandAndModel(brand, model);
+    }
+
+    @GetMapping("/search/findByBrandOrColor")
+    public Flux<CarRow> findByBrandOrColor(@RequestParam String brand, @RequestParam String color) {
+        return repository.findByBrandOrColor(brand, color);
+    }
+
+    @GetMapping("/search/findByBrandOrderByModelYearAsc")
+    public Flux<CarRow> findByBrandOrderByModelYearAsc(@RequestParam String brand) {
+        return repository.findByBrandOrderByModelYearAsc(brand);
+    }
+}
@@ -1,16 +1,28 @@
 package com.packt.cardatabase;
 
 
+import com.packt.cardatabase.domain.CarRepository;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -20,15 +32,123 @@ public class CarRestTest {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CarRepository carRepository;
+
     // JWT의 기능테스트: 실제 상황과 유사하게 상황 재현, controller나 노출된 endpoint를 테스트
     @Test
     public void testAuthentication() throws Exception {
         // 올바른 자격 증명으로 인증 테스트
-        this.mockMvc
+        // /login은 비동기로 처리되므로(bcrypt 전용 thread pool) asyncDispatch로 최종 응답을 확인
+        MvcResult result = this.mockMvc
                 .perform(post("/login")
                         .content("{\"username\":\"admin\",\"password\":\"admin\"}")
                         .header(HttpHeaders.CONTENT_TYPE, "application/json"))
-                .andDo(print()).andExpect(status().isOk());
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andDo(print()).andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.AUTHORIZATION));
+
+    }
+
+    // 잘못된 비밀번호: 검증 thread에서 발생한 인증 실패가 비동기 dispatch에서 AuthEntryPoint로 전달되어 401
+    @Test
+    public void testAuthenticationWithWrongPassword() throws Exception {
+        MvcResult result = this.mockMvc
+                .perform(post("/login")
+                        .content("{\"username\":\"admin\",\"password\":\"wrong\"}")
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(HttpHeaders.AUTHORIZATION));
+    }
+
+    // 조건부 GET: 이전 응답의 ETag를 If-None-Match로 보내면 데이터가 바뀌지 않았으므로 304
+    @Test
+    @WithMockUser
+    public void testConditionalGet() throws Exception {
+        String etag = this.mockMvc.perform(get("/api/cars"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        this.mockMvc.perform(get("/api/cars").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    // 요청마다 실행된 SQL 수를 debug 헤더로 출력 (prod profile에서는 꺼짐)
+    @Test
+    @WithMockUser
+    public void testQueryCountHeader() throws Exception {
+        this.mockMvc.perform(get("/api/owners"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(RequestMetricsFilter.QUERY_COUNT_HEADER))
+                .andExpect(header().exists(RequestMetricsFilter.QUERY_TIME_HEADER));
+    }
+
+    // 형식(JSON/CBOR)마다 ETag가 다르고 Vary: Accept ==> 다른 형식의 ETag로는 304가 되지 않음
+    @Test
+    @WithMockUser
+    public void testETagPerRepresentation() throws Exception {
+        Long id = carRepository.findAll().iterator().next().getId();
+        String json = this.mockMvc.perform(get("/cars/" + id).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cbor = this.mockMvc.perform(get("/cars/" + id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(cbor).isNotEqualTo(json).endsWith("-cbor\"");
+
+        this.mockMvc.perform(get("/cars/" + id).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk());
+        this.mockMvc.perform(get("/cars/" + id).accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified());
+        this.mockMvc.perform(get("/api/cars/" + id).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, cbor));
+    }
+
+    // 컬렉션도 형식마다 ETag가 다름 ==> JSON 응답의 ETag로 CBOR를 요청하면 304가 아님
+    @Test
+    @WithMockUser
+    public void testCollectionETagPerRepresentation() throws Exception {
+        String json = this.mockMvc.perform(get("/api/cars").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cbor = this.mockMvc.perform(get("/api/cars").accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(cbor).isNotEqualTo(json).endsWith("-cbor\"");
+
+        this.mockMvc.perform(get("/api/cars").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cbor))
+                .andExpect(status().isNotModified());
+    }
+
+    // /api/cars는 keyset pagination: 다음 페이지는 _links.next, page 매개변수를 주면 기존 offset 페이징
+    @Test
+    @WithMockUser
+    public void testKeysetCollection() throws Exception {
+        String next = JsonPath.read(this.mockMvc.perform(get("/api/cars").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cars.length()").value(1))
+                .andExpect(jsonPath("$._links.next.href").exists())
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andReturn().getResponse().getContentAsString(), "$._links.next.href");
+        assertThat(next).contains("cursor=");
 
+        this.mockMvc.perform(get(next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.cars.length()").value(1));
+        this.mockMvc.perform(get("/api/cars").param("page", "0").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.number").value(0));
     }
 }
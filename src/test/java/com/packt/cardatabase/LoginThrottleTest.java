@@ -0,0 +1,75 @@
+package com.packt.cardatabase;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// 로그인 검증 pool이 포화 상태이면 기다리지 않고 429 + Retry-After (thread 1개, queue 없음)
+@SpringBootTest(properties = {"cardatabase.login.pool-size=1", "cardatabase.login.queue-capacity=0",
+        "cardatabase.login.retry-after-seconds=3"})
+@AutoConfigureMockMvc
+public class LoginThrottleTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    // bcrypt 대신 latch가 열릴 때까지 검증 thread를 붙잡아 두는 AuthenticationManager
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @Test
+    public void testLoginRejectedWhenPoolIsFull() throws Exception {
+        CountDownLatch verifying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            verifying.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.<Authentication>getArgument(0);
+        });
+
+        // 첫 로그인이 하나뿐인 검증 thread를 차지
+        MvcResult first = this.mockMvc.perform(login())
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        verifying.await(10, TimeUnit.SECONDS);
+
+        try {
+            MvcResult second = this.mockMvc.perform(login())
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            this.mockMvc.perform(asyncDispatch(second))
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+        } finally {
+            release.countDown();
+        }
+
+        this.mockMvc.perform(asyncDispatch(first))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.AUTHORIZATION));
+    }
+
+    private static MockHttpServletRequestBuilder login() {
+        return post("/login")
+                .content("{\"username\":\"admin\",\"password\":\"admin\"}")
+                .header(HttpHeaders.CONTENT_TYPE, "application/json");
+    }
+}
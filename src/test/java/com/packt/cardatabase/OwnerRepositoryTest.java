@@ -5,10 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.CarRepository;
 import com.packt.cardatabase.domain.Owner;
+import com.packt.cardatabase.domain.OwnerSummary;
 import com.packt.cardatabase.domain.OwnerRepository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class OwnerRepositoryTest {
@@ -16,6 +20,9 @@ class OwnerRepositoryTest {
     @Autowired
     private OwnerRepository repository;
 
+    @Autowired
+    private CarRepository carRepository;
+
     // 통합 테스트: repository가 database와의 상호작용 확인
     @Test
     void saveOwner() {
@@ -32,4 +39,18 @@ class OwnerRepositoryTest {
         assertThat(repository.count()).isEqualTo(0);
     }
 
+    // 자동차 수는 group by로 계산, 자동차가 없는 소유자는 0
+    @Test
+    void ownerSummariesCountCars() {
+        Owner owner = repository.save(new Owner("Mary", "Jones"));
+        repository.save(new Owner("Tom", "Baker"));
+        carRepository.save(new Car("Ford", "Focus", "Red", "ABC-123", 2021, 30000, owner));
+        carRepository.save(new Car("Ford", "Puma", "Blue", "ABC-124", 2022, 32000, owner));
+
+        assertThat(repository.findSummaries())
+                .extracting(OwnerSummary::firstName, OwnerSummary::carCount)
+                .contains(tuple("Mary", 2L),
+                        tuple("Tom", 0L));
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.packt.cardatabase;
+
+import com.packt.cardatabase.domain.CarRow;
+import com.packt.cardatabase.domain.ReactiveCarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 통합 테스트: JPA가 만든 테이블과 예제 데이터를 R2DBC로 읽을 수 있는지 확인 (같은 H2 in-memory DB를 공유)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+class ReactiveCarRepositoryTest {
+
+    @Autowired
+    private ReactiveCarRepository repository;
+
+    @Test
+    void findByBrandReadsJpaSchema() {
+        // CardatabaseApplication.run()이 입력한 예제 데이터
+        List<CarRow> cars = repository.findByBrand("Nissan").collectList().block();
+        assertThat(cars).extracting(CarRow::model).containsExactly("Leaf");
+        assertThat(cars.get(0).ownerId()).isNotNull();
+    }
+}
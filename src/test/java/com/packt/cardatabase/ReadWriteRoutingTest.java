@@ -0,0 +1,48 @@
+package com.packt.cardatabase;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 통합 테스트: 읽기 전용 transaction은 replica, 쓰기 transaction은 primary (H2 in-memory DB 2개)
+// replica에는 테이블이 없으므로 시작할 때 DB를 읽는 메모리 인덱스/예제 데이터는 끔
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "cardatabase.datasource.replica-urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "cardatabase.seed.enabled=false",
+        "cardatabase.stats.enabled=false",
+        "cardatabase.suggest.enabled=false"
+})
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        assertThat(readOnly.execute(status -> database())).isEqualTo("REPLICA");
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertThat(readWrite.execute(status -> database())).isEqualTo("PRIMARY");
+
+        // transaction 밖은 primary
+        assertThat(database()).isEqualTo("PRIMARY");
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+}
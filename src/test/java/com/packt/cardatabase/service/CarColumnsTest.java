@@ -0,0 +1,48 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarFilter;
+import com.packt.cardatabase.domain.CarSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 단위 테스트: 메모리 인덱스의 bitmap/범위 검색이 DB 쿼리와 같은 결과를 주는지 확인
+class CarColumnsTest {
+    private CarColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        columns = new CarColumns();
+        columns.put(new CarSnapshot(1L, "Ford", "Mustang", "Red", "ADF-1121", 2023, 59000, 1L));
+        columns.put(new CarSnapshot(2L, "Nissan", "Leaf", "White", "SSJ-3002", 2020, 29000, 2L));
+        columns.put(new CarSnapshot(3L, "Toyota", "Prius", "Silver", "KKO-0212", 2022, 39000, 2L));
+        columns.put(new CarSnapshot(4L, "Ford", "Focus", "White", "FOC-0001", 2019, 19000, 1L));
+    }
+
+    @Test
+    void filterByDictionaryAndRange() {
+        assertThat(columns.matchingIds(filter("Ford", null, null, null))).containsExactly(1L, 4L);
+        // 대소문자 구분 없음 (MariaDB 기본 collation과 동일)
+        assertThat(columns.matchingIds(filter("ford", "white", null, null))).containsExactly(4L);
+        assertThat(columns.matchingIds(filter(null, null, 2020, 2022))).containsExactly(2L, 3L);
+        assertThat(columns.matchingIds(filter("Tesla", null, null, null))).isEmpty();
+        assertThat(columns.matchingIds(filter(null, null, null, null))).containsExactly(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void updateAndRemoveKeepBitmapsInSync() {
+        columns.put(new CarSnapshot(4L, "Ford", "Focus", "Blue", "FOC-0001", 2019, 18000, 1L));
+        assertThat(columns.matchingIds(filter(null, "White", null, null))).containsExactly(2L);
+        assertThat(columns.matchingIds(filter(null, "Blue", null, null))).containsExactly(4L);
+
+        columns.remove(1L);
+        columns.put(new CarSnapshot(5L, "Ford", "Fiesta", "Red", "FIE-0005", 2021, 21000, null));
+        assertThat(columns.matchingIds(filter("Ford", null, null, null))).containsExactly(4L, 5L);
+        assertThat(columns.size()).isEqualTo(4);
+    }
+
+    private static CarFilter filter(String brand, String color, Integer minYear, Integer maxYear) {
+        return new CarFilter(brand, null, color, minYear, maxYear, null, null);
+    }
+}
@@ -0,0 +1,58 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.Car;
+import com.packt.cardatabase.domain.CarFilter;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSnapshot;
+import com.packt.cardatabase.domain.CarSpecifications;
+import com.packt.cardatabase.domain.Owner;
+import com.packt.cardatabase.domain.OwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 통합 테스트: 메모리 인덱스(warm)와 DB fallback(cold)이 대소문자가 섞인 조건에도 같은 자동차를 찾는지 확인 (H2는 대소문자 구분)
+@DataJpaTest
+class CarSearchConsistencyTest {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    private final CarColumns columns = new CarColumns();
+
+    @BeforeEach
+    void setUp() {
+        Owner owner = ownerRepository.save(new Owner("Mary", "Jones"));
+        List<Car> cars = List.of(
+                new Car("Ford", "Focus", "Red", "ABC-123", 2021, 30000, owner),
+                new Car("FORD", "Puma", "Blue", "ABC-124", 2022, 32000, owner),
+                new Car("Toyota", "Prius", "red", "ABC-125", 2020, 28000, owner));
+        carRepository.saveAll(cars).forEach(car -> columns.put(CarSnapshot.of(car)));
+    }
+
+    @Test
+    void indexAndDatabaseAgreeOnMixedCaseInput() {
+        List<CarFilter> filters = List.of(
+                new CarFilter("ford", null, null, null, null, null, null),
+                new CarFilter("fOrD", "FOCUS", null, null, null, null, null),
+                new CarFilter(null, null, "RED", null, null, null, null),
+                new CarFilter("Ford", null, null, 2022, 2022, null, null),
+                new CarFilter("Tesla", null, null, null, null, null, null));
+        for (CarFilter filter : filters) {
+            List<Long> fromDatabase = carRepository.findAll(CarSpecifications.matching(filter)).stream()
+                    .map(Car::getId).sorted().toList();
+            List<Long> fromIndex = Arrays.stream(columns.matchingIds(filter)).boxed().toList();
+            assertThat(fromIndex).as(filter.toString()).isEqualTo(fromDatabase);
+        }
+        assertThat(columns.matchingIds(filters.get(0))).hasSize(2);
+    }
+}
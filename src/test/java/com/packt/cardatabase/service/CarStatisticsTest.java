@@ -0,0 +1,57 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarChangedEvent;
+import com.packt.cardatabase.domain.CarGroupTotals;
+import com.packt.cardatabase.domain.CarRepository;
+import com.packt.cardatabase.domain.CarSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 단위 테스트: GROUP BY 초기값에 변경 이벤트를 더하고 빼서 통계가 맞게 유지되는지 확인
+class CarStatisticsTest {
+    private CarStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        CarRepository repository = mock(CarRepository.class);
+        when(repository.groupTotals()).thenReturn(List.of(
+                new CarGroupTotals("Ford", "Red", 2023, 2L, 100000L),
+                new CarGroupTotals("Nissan", "White", 2020, 1L, 29000L)));
+        statistics = new CarStatistics(repository, true);
+        statistics.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void initialTotalsComeFromGroupBy() {
+        InventoryStats stats = statistics.stats().orElseThrow();
+        assertThat(stats.total().count()).isEqualTo(3);
+        assertThat(stats.byBrand()).extracting(InventoryStats.Bucket::key).containsExactly("Ford", "Nissan");
+        assertThat(stats.byBrand().get(0).averagePrice()).isEqualTo(50000.0);
+    }
+
+    @Test
+    void changesAreAppliedIncrementally() {
+        CarSnapshot leaf = new CarSnapshot(2L, "Nissan", "Leaf", "White", "SSJ-3002", 2020, 29000, null);
+        CarSnapshot repainted = new CarSnapshot(2L, "Nissan", "Leaf", "Red", "SSJ-3002", 2020, 31000, null);
+        statistics.onCarChanged(new CarChangedEvent(CarChangedEvent.Type.UPDATED, leaf, repainted));
+        statistics.onCarChanged(new CarChangedEvent(CarChangedEvent.Type.CREATED, null,
+                new CarSnapshot(3L, "Tesla", "Model 3", "Red", "TES-0001", 2024, 45000, null)));
+
+        InventoryStats stats = statistics.stats().orElseThrow();
+        assertThat(stats.total().count()).isEqualTo(4);
+        assertThat(stats.byColor()).extracting(InventoryStats.Bucket::key, InventoryStats.Bucket::count)
+                .containsExactly(tuple("Red", 4L));
+        assertThat(stats.yearsByBrand().get("Tesla")).containsEntry(2024, 1L);
+
+        statistics.onCarChanged(new CarChangedEvent(CarChangedEvent.Type.DELETED, repainted, null));
+        assertThat(statistics.stats().orElseThrow().byBrand())
+                .extracting(InventoryStats.Bucket::key).containsExactly("Ford", "Tesla");
+    }
+}
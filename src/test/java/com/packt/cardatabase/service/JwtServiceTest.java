@@ -0,0 +1,70 @@
+package com.packt.cardatabase.service;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 단위 테스트: 같은 key 설정을 가진 다른 node가 토큰을 검증할 수 있는지, key 교체 중에 이전 토큰이 유효한지 확인
+class JwtServiceTest {
+
+    @Test
+    void tokenFromOneNodeIsAcceptedByAnother() {
+        List<String> keys = List.of("k1:" + secret());
+        JwtService issuer = service(new JwtKeys(SignatureAlgorithm.HS256, keys, "", "", "", ""));
+        JwtService other = service(new JwtKeys(SignatureAlgorithm.HS256, keys, "", "", "", ""));
+
+        assertThat(other.getAuthUser(request(issuer.getToken("user")))).isEqualTo("user");
+    }
+
+    @Test
+    void previousKeyStaysValidDuringRotation() {
+        String oldKey = "k1:" + secret();
+        String newKey = "k2:" + secret();
+        JwtService before = service(new JwtKeys(SignatureAlgorithm.HS256, List.of(oldKey), "k1", "", "", ""));
+        JwtService after = service(new JwtKeys(SignatureAlgorithm.HS256, List.of(newKey, oldKey), "k2", "", "", ""));
+        JwtService retired = service(new JwtKeys(SignatureAlgorithm.HS256, List.of(newKey), "k2", "", "", ""));
+
+        String oldToken = before.getToken("user");
+        assertThat(after.getAuthUser(request(oldToken))).isEqualTo("user");
+        assertThatThrownBy(() -> retired.getAuthUser(request(oldToken))).isInstanceOf(UnsupportedJwtException.class);
+    }
+
+    @Test
+    void es256VerificationOnlyNodeNeedsPublicKey() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        List<String> keys = List.of("ec1:" + Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+        String privateKey = Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded());
+        JwtService issuer = service(new JwtKeys(SignatureAlgorithm.ES256, keys, "ec1", privateKey, "", ""));
+        JwtService verifier = service(new JwtKeys(SignatureAlgorithm.ES256, keys, "ec1", "", "", ""));
+
+        assertThat(verifier.getAuthUser(request(issuer.getToken("user")))).isEqualTo("user");
+        assertThatThrownBy(() -> verifier.getToken("user")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static JwtService service(JwtKeys keys) {
+        return new JwtService(new SimpleMeterRegistry(), keys, 100);
+    }
+
+    private static String secret() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        return Base64.getEncoder().encodeToString(key.getEncoded());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+}
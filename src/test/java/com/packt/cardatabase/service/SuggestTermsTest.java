@@ -0,0 +1,57 @@
+package com.packt.cardatabase.service;
+
+import com.packt.cardatabase.domain.CarSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 단위 테스트: prefix/부분 문자열 검색과 순위, 삭제 반영
+class SuggestTermsTest {
+    private SuggestTerms terms;
+
+    @BeforeEach
+    void setUp() {
+        terms = new SuggestTerms();
+        terms.add(new CarSnapshot(1L, "Ford", "Mustang", "Red", "ADF-1121", 2023, 59000, 1L));
+        terms.add(new CarSnapshot(2L, "Ford", "Focus", "White", "FOC-0001", 2019, 19000, 1L));
+        terms.add(new CarSnapshot(3L, "Toyota", "Corolla", "Silver", "KKO-0212", 2022, 39000, 2L));
+        terms.add(new CarSnapshot(4L, "Honda", "Accord", "Blue", "ACC-0042", 2021, 31000, null));
+    }
+
+    @Test
+    void prefixMatchesRankBeforeSubstringMatches() {
+        // "fo": Ford(브랜드, 2대) > Focus(모델) > FOC-0001(등록번호), 부분 일치는 3글자 이상만
+        assertThat(terms.search("fo", 10)).extracting(CarSuggestion::value)
+                .containsExactly("Ford", "Focus", "FOC-0001");
+        // "cor": Corolla(prefix) 다음에 Accord(부분 일치)
+        assertThat(terms.search("cor", 10)).extracting(CarSuggestion::value)
+                .containsExactly("Corolla", "Accord");
+        assertThat(terms.search("ford", 10).get(0).count()).isEqualTo(2);
+        assertThat(terms.search("0212", 10)).extracting(CarSuggestion::carId).containsExactly(3L);
+        assertThat(terms.search("fo", 1)).hasSize(1);
+    }
+
+    @Test
+    void removedCarsDisappear() {
+        terms.remove(new CarSnapshot(3L, "Toyota", "Corolla", "Silver", "KKO-0212", 2022, 39000, 2L));
+        assertThat(terms.search("cor", 10)).extracting(CarSuggestion::value).containsExactly("Accord");
+        assertThat(terms.search("toy", 10)).isEmpty();
+    }
+
+    // 수정(remove + add)을 반복해도 삭제됐던 term을 재사용 ==> term 목록과 posting list가 늘어나지 않음
+    @Test
+    void repeatedUpdatesReuseTerms() {
+        CarSnapshot car = new CarSnapshot(3L, "Toyota", "Corolla", "Silver", "KKO-0212", 2022, 39000, 2L);
+        int allocated = terms.allocatedTerms();
+        int postings = terms.postings();
+        for (int i = 0; i < 100; i++) {
+            terms.remove(car);
+            terms.add(car);
+        }
+        assertThat(terms.allocatedTerms()).isEqualTo(allocated);
+        assertThat(terms.postings()).isEqualTo(postings);
+        assertThat(terms.search("toy", 10)).extracting(CarSuggestion::count).containsExactly(1L);
+        assertThat(terms.search("0212", 10)).extracting(CarSuggestion::carId).containsExactly(3L);
+    }
+}